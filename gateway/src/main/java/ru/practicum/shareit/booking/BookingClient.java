@@ -11,6 +11,8 @@ import ru.practicum.shareit.booking.dto.Booking;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -31,6 +33,10 @@ public class BookingClient extends BaseClient {
         return post("", userId, requestDto);
     }
 
+    public ResponseEntity<Object> createBookings(long userId, List<Booking> requestDtos) {
+        return post("/batch", userId, requestDtos);
+    }
+
     public ResponseEntity<Object> approveBooking(long bookingId, boolean approved, long ownerId) {
         Map<String, Object> parameters = Map.of(
                 "approved", approved
@@ -38,25 +44,35 @@ public class BookingClient extends BaseClient {
         return patch("/" + bookingId + "?approved={approved}", ownerId, parameters);
     }
 
+    public ResponseEntity<Object> approveBookings(List<Long> bookingIds, boolean approved, long ownerId) {
+        Map<String, Object> parameters = Map.of(
+                "approved", approved
+        );
+        return patch("/approve?approved={approved}", ownerId, parameters, bookingIds);
+    }
+
     public ResponseEntity<Object> getBooking(long userId, long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getAllBookingsByBooker(long bookerId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public ResponseEntity<Object> getAllBookingsByBooker(long bookerId, BookingState state, Integer from, Integer size,
+                                                         String after) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", bookerId, parameters);
+        ));
+        return get(withCursor("?state={state}&from={from}&size={size}", after, parameters), bookerId, parameters);
     }
 
-    public ResponseEntity<Object> getAllBookingsByOwner(long ownerId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public ResponseEntity<Object> getAllBookingsByOwner(long ownerId, BookingState state, Integer from, Integer size,
+                                                        String after) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", ownerId, parameters);
+        ));
+        return get(withCursor("/owner?state={state}&from={from}&size={size}", after, parameters), ownerId,
+                parameters);
     }
-}
\ No newline at end of file
+}
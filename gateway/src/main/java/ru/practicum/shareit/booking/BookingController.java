@@ -12,8 +12,12 @@ import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.exception.ValidationException;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -21,6 +25,8 @@ import javax.validation.constraints.PositiveOrZero;
 @Slf4j
 @Validated
 public class BookingController {
+    private static final int MAX_BATCH_SIZE = 100;
+
     private final BookingClient bookingClient;
 
     @PostMapping
@@ -33,6 +39,19 @@ public class BookingController {
         return bookingClient.createBooking(userId, bookingDto);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Object> createBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                 @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE)
+                                                 List<@Valid @NotNull Booking> bookingDtos) {
+        for (int i = 0; i < bookingDtos.size(); i++) {
+            if (!bookingDtos.get(i).getEnd().isAfter(bookingDtos.get(i).getStart())) {
+                throw new ValidationException("End before start in booking #" + i);
+            }
+        }
+        log.info("Creating {} bookings, userId={}", bookingDtos.size(), userId);
+        return bookingClient.createBookings(userId, bookingDtos);
+    }
+
     @PatchMapping("/{bookingId}")
     public ResponseEntity<Object> approveBooking(@PathVariable long bookingId, @RequestParam boolean approved,
                                                  @RequestHeader("X-Sharer-User-Id") long ownerId) {
@@ -40,6 +59,15 @@ public class BookingController {
         return bookingClient.approveBooking(bookingId, approved, ownerId);
     }
 
+    @PatchMapping("/approve")
+    public ResponseEntity<Object> approveBookings(@RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE)
+                                                  List<@NotNull Long> bookingIds,
+                                                  @RequestParam boolean approved,
+                                                  @RequestHeader("X-Sharer-User-Id") long ownerId) {
+        log.info("Approving bookings {}, ownerId={}", bookingIds, ownerId);
+        return bookingClient.approveBookings(bookingIds, approved, ownerId);
+    }
+
     @GetMapping("/{bookingId}")
     public ResponseEntity<Object> getBooking(@RequestHeader("X-Sharer-User-Id") long userId,
                                              @PathVariable long bookingId) {
@@ -51,21 +79,25 @@ public class BookingController {
     public ResponseEntity<Object> getAllBookingsByBooker(@RequestHeader("X-Sharer-User-Id") long bookerId,
                                                          @RequestParam(name = "state", defaultValue = "all") String stateParam,
                                                          @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                                         @Positive @RequestParam(defaultValue = "10") Integer size) {
+                                                         @Positive @RequestParam(defaultValue = "10") Integer size,
+                                                         @RequestParam(required = false) String after) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new ValidationException("Unknown state: " + stateParam));
-        log.info("Get bookings with state {}, bookerId={}, from={}, size={}", stateParam, bookerId, from, size);
-        return bookingClient.getAllBookingsByBooker(bookerId, state, from, size);
+        log.info("Get bookings with state {}, bookerId={}, from={}, size={}, after={}", stateParam, bookerId, from, size,
+                after);
+        return bookingClient.getAllBookingsByBooker(bookerId, state, from, size, after);
     }
 
     @GetMapping("/owner")
     public ResponseEntity<Object> getAllBookingsByOwner(@RequestHeader("X-Sharer-User-Id") long ownerId,
                                                         @RequestParam(name = "state", defaultValue = "all") String stateParam,
                                                         @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                                        @Positive @RequestParam(defaultValue = "10") Integer size) {
+                                                        @Positive @RequestParam(defaultValue = "10") Integer size,
+                                                        @RequestParam(required = false) String after) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new ValidationException("Unknown state: " + stateParam));
-        log.info("Get bookings with state {}, ownerId={}, from={}, size={}", stateParam, ownerId, from, size);
-        return bookingClient.getAllBookingsByOwner(ownerId, state, from, size);
+        log.info("Get bookings with state {}, ownerId={}, from={}, size={}, after={}", stateParam, ownerId, from, size,
+                after);
+        return bookingClient.getAllBookingsByOwner(ownerId, state, from, size, after);
     }
 }
\ No newline at end of file
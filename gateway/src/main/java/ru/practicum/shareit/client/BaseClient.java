@@ -19,6 +19,17 @@ public class BaseClient {
         this.rest = rest;
     }
 
+    /**
+     * Appends the {@code after} keyset cursor to the path if there is one; the parameters must be mutable.
+     */
+    protected static String withCursor(String path, @Nullable String after, Map<String, Object> parameters) {
+        if (after == null) {
+            return path;
+        }
+        parameters.put("after", after);
+        return path + "&after={after}";
+    }
+
     protected ResponseEntity<Object> get(String path) {
         return get(path, null, null);
     }
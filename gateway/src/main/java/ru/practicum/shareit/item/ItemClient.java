@@ -1,5 +1,7 @@
 package ru.practicum.shareit.item;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
@@ -10,13 +12,24 @@ import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.Comment;
 import ru.practicum.shareit.item.dto.Item;
+import ru.practicum.shareit.item.dto.SearchOrder;
 import ru.practicum.shareit.item.dto.UpdatedItem;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Locale;
 import java.util.Map;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
+    private static final Duration SUGGESTION_TTL = Duration.ofSeconds(5);
+    private static final long MAX_CACHED_SUGGESTIONS = 10_000;
+
+    private final Cache<String, ResponseEntity<Object>> suggestions = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_SUGGESTIONS)
+            .expireAfterWrite(SUGGESTION_TTL)
+            .build();
 
     @Autowired
     public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
@@ -49,13 +62,41 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getAllItemsByText(String text, long userId, Integer from, Integer size) {
+    public ResponseEntity<Object> getAvailability(long itemId, long userId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> getSuggestions(String prefix, Integer size) {
+        String key = prefix.toLowerCase(Locale.ROOT).stripLeading() + "|" + size;
+        ResponseEntity<Object> cached = suggestions.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        Map<String, Object> parameters = Map.of(
+                "prefix", prefix,
+                "size", size
+        );
+        ResponseEntity<Object> response = get("/suggest?prefix={prefix}&size={size}", null, parameters);
+        if (response.getStatusCode().is2xxSuccessful()) {
+            suggestions.put(key, response);
+        }
+        return response;
+    }
+
+    public ResponseEntity<Object> getAllItemsByText(String text, SearchOrder order, boolean fuzzy, long userId,
+                                                    Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
+                "order", order.name(),
+                "fuzzy", fuzzy,
                 "from", from,
                 "size", size
         );
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        return get("/search?text={text}&order={order}&fuzzy={fuzzy}&from={from}&size={size}", userId, parameters);
     }
 
     public ResponseEntity<Object> createComment(Comment comment, long itemId, long userId) {
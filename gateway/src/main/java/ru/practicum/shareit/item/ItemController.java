@@ -2,17 +2,22 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.Comment;
 import ru.practicum.shareit.item.dto.Item;
+import ru.practicum.shareit.item.dto.SearchOrder;
 import ru.practicum.shareit.item.dto.UpdatedItem;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
 import java.util.Collections;
 
 @Controller
@@ -51,17 +56,47 @@ public class ItemController {
         return itemClient.getAllItemsByOwner(userId, from, size);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> findAvailability(@PathVariable long itemId,
+                                                   @RequestHeader("X-Sharer-User-Id") long userId,
+                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                   LocalDateTime from,
+                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                   LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new ValidationException("The start of the range must be before its end");
+        }
+        log.info("Get availability of item №{}, from={}, to={}", itemId, from, to);
+        return itemClient.getAvailability(itemId, userId, from, to);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<Object> suggest(@RequestParam String prefix,
+                                          @RequestParam(defaultValue = "10") @Positive @Max(10) Integer size) {
+        if (prefix.isBlank()) {
+            log.info("Get empty suggestions list by blank prefix");
+            return ResponseEntity.ok(Collections.emptyList());
+        }
+        log.info("Get item suggestions by prefix={}, size={}", prefix, size);
+        return itemClient.getSuggestions(prefix, size);
+    }
+
     @GetMapping("/search")
     public ResponseEntity<Object> findAllItemsByText(@RequestParam String text,
+                                                     @RequestParam(name = "order", defaultValue = "id")
+                                                     String orderParam,
+                                                     @RequestParam(defaultValue = "false") boolean fuzzy,
                                                      @RequestHeader("X-Sharer-User-Id") long userId,
                                                      @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
                                                      @RequestParam(defaultValue = "10") @Positive Integer size) {
+        SearchOrder order = SearchOrder.from(orderParam)
+                .orElseThrow(() -> new ValidationException("Unknown order: " + orderParam));
         if (text.isBlank()) {
             log.info("Get empty items list by blank text");
             return ResponseEntity.ok(Collections.emptyList());
         }
-        log.info("Get items by text={}, from={}, size={}", text, from, size);
-        return itemClient.getAllItemsByText(text, userId, from, size);
+        log.info("Get items by text={}, order={}, fuzzy={}, from={}, size={}", text, order, fuzzy, from, size);
+        return itemClient.getAllItemsByText(text, order, fuzzy, userId, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
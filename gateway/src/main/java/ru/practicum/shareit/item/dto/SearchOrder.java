@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.dto;
+
+import java.util.Optional;
+
+public enum SearchOrder {
+    // По возрастанию id
+    ID,
+    // По релевантности
+    RELEVANCE;
+
+    public static Optional<SearchOrder> from(String stringOrder) {
+        for (SearchOrder order : values()) {
+            if (order.name().equalsIgnoreCase(stringOrder)) {
+                return Optional.of(order);
+            }
+        }
+        return Optional.empty();
+    }
+}
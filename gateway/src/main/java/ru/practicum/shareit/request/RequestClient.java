@@ -10,6 +10,7 @@ import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.request.dto.Request;
 
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -34,12 +35,20 @@ public class RequestClient extends BaseClient {
         return get("", requesterId);
     }
 
-    public ResponseEntity<Object> getAllRequests(Long userId, Integer from, Integer size) {
+    public ResponseEntity<Object> getAllRequests(Long userId, Integer from, Integer size, String after) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
+                "from", from,
+                "size", size
+        ));
+        return get(withCursor("/all?from={from}&size={size}", after, parameters), userId, parameters);
+    }
+
+    public ResponseEntity<Object> getInbox(Long userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
         );
-        return get("/all?from={from}&size={size}", userId, parameters);
+        return get("/inbox?from={from}&size={size}", userId, parameters);
     }
 
     public ResponseEntity<Object> getRequest(Long requestId, Long requesterId) {
@@ -36,9 +36,18 @@ public class RequestController {
     @GetMapping("/all")
     public ResponseEntity<Object> getAllRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
                                           @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-                                          @RequestParam(defaultValue = "10") @Positive Integer size) {
-        log.info("Get requests for user №{}", userId);
-        return requestClient.getAllRequests(userId, from, size);
+                                          @RequestParam(defaultValue = "10") @Positive Integer size,
+                                          @RequestParam(required = false) String after) {
+        log.info("Get requests for user №{}, from={}, size={}, after={}", userId, from, size, after);
+        return requestClient.getAllRequests(userId, from, size, after);
+    }
+
+    @GetMapping("/inbox")
+    public ResponseEntity<Object> getInbox(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                           @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+                                           @RequestParam(defaultValue = "10") @Positive Integer size) {
+        log.info("Get request matches for user №{}, from={}, size={}", userId, from, size);
+        return requestClient.getInbox(userId, from, size);
     }
 
     @GetMapping("/{requestId}")
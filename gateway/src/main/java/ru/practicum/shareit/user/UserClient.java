@@ -3,14 +3,22 @@ package ru.practicum.shareit.user;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.user.dto.UpdatedUser;
 import ru.practicum.shareit.user.dto.User;
 
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
@@ -33,8 +41,21 @@ public class UserClient extends BaseClient {
         return patch("/" + id, id, updatedUser);
     }
 
-    public ResponseEntity<Object> getAllUsers() {
-        return get("");
+    public ResponseEntity<Object> getAllUsers(Integer from, Integer size, String after) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
+                "from", from,
+                "size", size
+        ));
+        return get(withCursor("?from={from}&size={size}", after, parameters), null, parameters);
+    }
+
+    /**
+     * Copies the server's NDJSON stream of all users to the given output as it arrives, without buffering it.
+     */
+    public void streamAllUsers(OutputStream outputStream) {
+        rest.execute("", HttpMethod.GET,
+                request -> request.getHeaders().setAccept(List.of(MediaType.APPLICATION_NDJSON)),
+                response -> StreamUtils.copy(response.getBody(), outputStream));
     }
 
     public ResponseEntity<Object> getUser(long id) {
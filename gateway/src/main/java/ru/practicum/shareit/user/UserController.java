@@ -2,14 +2,18 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.user.dto.UpdatedUser;
 import ru.practicum.shareit.user.dto.User;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
 
 @Controller
 @RequestMapping(path = "/users")
@@ -32,9 +36,19 @@ public class UserController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllUsers() {
-        log.info("Get all users");
-        return userClient.getAllUsers();
+    public ResponseEntity<Object> getAllUsers(@RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+                                              @RequestParam(defaultValue = "10") @Positive Integer size,
+                                              @RequestParam(required = false) String after) {
+        log.info("Get users, from={}, size={}, after={}", from, size, after);
+        return userClient.getAllUsers(from, size, after);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllUsers() {
+        log.info("Stream all users");
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(userClient::streamAllUsers);
     }
 
     @GetMapping("/{id}")
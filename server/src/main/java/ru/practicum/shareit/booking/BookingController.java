@@ -1,9 +1,13 @@
 package ru.practicum.shareit.booking;
 
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingApprovalResult;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.pagination.Cursor;
 
 import java.util.List;
 
@@ -22,6 +26,18 @@ public class BookingController {
         return bookingService.create(booking, bookerId);
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResult> createAll(@RequestBody List<Booking> bookings,
+                                              @RequestHeader("X-Sharer-User-Id") Long bookerId) {
+        return bookingService.createAll(bookings, bookerId);
+    }
+
+    @PatchMapping("/approve")
+    public List<BookingApprovalResult> approveAll(@RequestBody List<Long> bookingIds, @RequestParam boolean approved,
+                                                  @RequestHeader("X-Sharer-User-Id") Long ownerId) {
+        return bookingService.approveAll(bookingIds, approved, ownerId);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDto approve(@PathVariable Long bookingId, @RequestParam boolean approved,
                               @RequestHeader("X-Sharer-User-Id") Long ownerId) {
@@ -34,18 +50,30 @@ public class BookingController {
     }
 
     @GetMapping()
-    public List<BookingDto> findAllByBooker(@RequestHeader("X-Sharer-User-Id") Long bookerId,
-                                            @RequestParam(defaultValue = "ALL") String state,
-                                            @RequestParam(defaultValue = "0") Integer from,
-                                            @RequestParam(defaultValue = "10") Integer size) {
-        return bookingService.findAllByBooker(bookerId, state, from, size);
+    public ResponseEntity<List<BookingDto>> findAllByBooker(@RequestHeader("X-Sharer-User-Id") Long bookerId,
+                                                            @RequestParam(defaultValue = "ALL") String state,
+                                                            @RequestParam(defaultValue = "0") Integer from,
+                                                            @RequestParam(defaultValue = "10") Integer size,
+                                                            @RequestParam(required = false) String after) {
+        final List<BookingDto> bookings = after != null
+                ? bookingService.findAllByBookerAfter(bookerId, state, after, size)
+                : bookingService.findAllByBooker(bookerId, state, from, size);
+        return Cursor.withNextCursor(bookings, size, BookingController::cursorOf);
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> findAllByOwner(@RequestHeader("X-Sharer-User-Id") Long ownerId,
-                                           @RequestParam(defaultValue = "ALL") String state,
-                                           @RequestParam(defaultValue = "0") Integer from,
-                                           @RequestParam(defaultValue = "10") Integer size) {
-        return bookingService.findAllByOwner(ownerId, state, from, size);
+    public ResponseEntity<List<BookingDto>> findAllByOwner(@RequestHeader("X-Sharer-User-Id") Long ownerId,
+                                                           @RequestParam(defaultValue = "ALL") String state,
+                                                           @RequestParam(defaultValue = "0") Integer from,
+                                                           @RequestParam(defaultValue = "10") Integer size,
+                                                           @RequestParam(required = false) String after) {
+        final List<BookingDto> bookings = after != null
+                ? bookingService.findAllByOwnerAfter(ownerId, state, after, size)
+                : bookingService.findAllByOwner(ownerId, state, from, size);
+        return Cursor.withNextCursor(bookings, size, BookingController::cursorOf);
+    }
+
+    private static Cursor cursorOf(BookingDto bookingDto) {
+        return Cursor.of(bookingDto.getStart(), bookingDto.getId());
     }
 }
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import ru.practicum.shareit.booking.BookingStatus;
+
+@Data
+@Builder
+public class BookingApprovalResult {
+
+    private final Long bookingId;
+    private final BookingStatus status;
+    private final String error;
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BookingBatchResult {
+
+    private final Integer index;
+    private final BookingDto booking;
+    private final String error;
+}
@@ -2,28 +2,64 @@ package ru.practicum.shareit.booking.dto;
 
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemCache;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Component
 public class BookingMapper {
 
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final ItemCache itemCache;
 
-    public BookingMapper(ItemRepository itemRepository, UserRepository userRepository) {
+    public BookingMapper(ItemRepository itemRepository, UserRepository userRepository, ItemCache itemCache) {
         this.itemRepository = itemRepository;
         this.userRepository = userRepository;
+        this.itemCache = itemCache;
     }
 
     public BookingDto toBookingDto(Booking booking) {
+        return toBookingDto(booking,
+                userRepository.findById(booking.getBookerId()).get(),
+                itemCache.findById(booking.getItemId()).get());
+    }
+
+    public BookingDto toBookingDto(Booking booking, User booker, Item item) {
         return BookingDto.builder()
                 .id(booking.getId())
                 .start(booking.getStart())
                 .end(booking.getEnd())
                 .status(booking.getStatus())
-                .booker(userRepository.findById(booking.getBookerId()).get())
-                .item(itemRepository.findById(booking.getItemId()).get())
+                .booker(booker)
+                .item(item)
                 .build();
     }
+
+    public List<BookingDto> toBookingDtos(List<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> bookerIds = bookings.stream().map(Booking::getBookerId).collect(Collectors.toSet());
+        Set<Long> itemIds = bookings.stream().map(Booking::getItemId).collect(Collectors.toSet());
+        Map<Long, User> bookers = userRepository.findAllById(bookerIds)
+                .stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        Map<Long, Item> items = itemRepository.findAllById(itemIds)
+                .stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return bookings
+                .stream()
+                .map(booking -> toBookingDto(booking, bookers.get(booking.getBookerId()),
+                        items.get(booking.getItemId())))
+                .collect(Collectors.toList());
+    }
 }
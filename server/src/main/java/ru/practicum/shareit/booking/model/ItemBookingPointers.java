@@ -0,0 +1,57 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Persisted last and next booking of an item, valid until the first moment either of them can change.
+ *
+ * <p>Rows built in memory are new until persisted, so saving one inserts it without a select first.
+ */
+@Data
+@Builder
+@Entity
+@Table(name = "item_booking_pointers")
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemBookingPointers implements Persistable<Long> {
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+    @Column(name = "last_booking_id")
+    private Long lastBookingId;
+    @Column(name = "next_booking_id")
+    private Long nextBookingId;
+    @Column(name = "next_start")
+    private LocalDateTime nextStart;
+    @Column(name = "valid_until")
+    private LocalDateTime validUntil;
+    @Transient
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean stored;
+
+    @Override
+    public Long getId() {
+        return itemId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !stored;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markStored() {
+        stored = true;
+    }
+}
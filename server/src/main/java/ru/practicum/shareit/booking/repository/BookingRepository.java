@@ -3,11 +3,19 @@ package ru.practicum.shareit.booking.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
 
+import javax.persistence.LockModeType;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
@@ -16,9 +24,8 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     List<Booking> findAllByItemIdAndBookerId(Long itemId, Long bookerId);
 
-    List<Booking> findAllByItemIdAndEndBefore(Long itemId, LocalDateTime localDateTime);
-
-    List<Booking> findAllByItemIdAndStartAfter(Long itemId, LocalDateTime localDateTime);
+    @Query("select b.itemId from Booking b where b.id = :bookingId")
+    Optional<Long> findItemIdById(Long bookingId);
 
     Page<Booking> findAllByBookerIdAndStartAfter(Long bookerId, LocalDateTime localDateTime, Pageable pageable);
 
@@ -27,12 +34,94 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     Page<Booking> findAllByBookerIdAndStartBeforeAndEndAfter(Long bookerId, LocalDateTime localDateTime1,
                                                              LocalDateTime localDateTime2, Pageable pageable);
 
-    Page<Booking> findAllByStartAfter(LocalDateTime localDateTime, Pageable pageable);
+    Page<Booking> findAllByBookerIdAndStatus(Long bookerId, BookingStatus status, Pageable pageable);
+
+    @Query("select distinct b.itemId from Booking b, Item i " +
+            "where b.itemId = i.id and i.owner = :ownerId and b.id in :bookingIds")
+    Set<Long> findAllItemIdByIdInAndOwnerId(Collection<Long> bookingIds, Long ownerId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Booking b where b.id in :bookingIds " +
+            "and b.itemId in (select i.id from Item i where i.owner = :ownerId) order by b.id")
+    List<Booking> findAllByIdInAndOwnerIdForUpdate(Collection<Long> bookingIds, Long ownerId);
+
+    @Modifying
+    @Query("update Booking b set b.status = :status " +
+            "where b.id in :bookingIds and b.status = ru.practicum.shareit.booking.BookingStatus.WAITING")
+    int updateStatusOfWaiting(Collection<Long> bookingIds, BookingStatus status);
+
+    @Query("select b.id from Booking b where b.id in :bookingIds and b.status = :status")
+    Set<Long> findAllIdByIdInAndStatus(Collection<Long> bookingIds, BookingStatus status);
+
+    List<Booking> findAllByItemIdInAndStatusAndStartBeforeAndEndAfter(Collection<Long> itemIds, BookingStatus status,
+                                                                      LocalDateTime end, LocalDateTime start);
+
+    List<Booking> findAllByItemIdAndStatusInAndStartBeforeAndEndAfterOrderByStartAsc(Long itemId,
+                                                                                     Collection<BookingStatus> statuses,
+                                                                                     LocalDateTime end,
+                                                                                     LocalDateTime start);
+
+    Optional<Booking> findFirstByItemIdAndEndBeforeOrderByEndDesc(Long itemId, LocalDateTime end);
+
+    Optional<Booking> findFirstByItemIdAndStartAfterOrderByStartAsc(Long itemId, LocalDateTime start);
+
+    Optional<Booking> findFirstByItemIdAndEndGreaterThanEqualOrderByEndAsc(Long itemId, LocalDateTime end);
+
+    @Query("select b from Booking b where b.itemId in :itemIds and b.end = " +
+            "(select max(p.end) from Booking p where p.itemId = b.itemId and p.end < :presentTime) order by b.id")
+    List<Booking> findAllLastByItemIdIn(Collection<Long> itemIds, LocalDateTime presentTime);
+
+    @Query("select b from Booking b where b.itemId in :itemIds and b.start = " +
+            "(select min(p.start) from Booking p where p.itemId = b.itemId and p.start > :presentTime) order by b.id")
+    List<Booking> findAllNextByItemIdIn(Collection<Long> itemIds, LocalDateTime presentTime);
+
+    @Query("select b.itemId as itemId, count(b.id) as bookings from Booking b group by b.itemId")
+    List<ItemBookingCount> countAllGroupByItemId();
+
+    boolean existsByItemIdAndStatusAndStartBeforeAndEndAfter(Long itemId, BookingStatus status, LocalDateTime end,
+                                                             LocalDateTime start);
+
+    boolean existsByItemIdAndStatusAndStartBeforeAndEndAfterAndIdNot(Long itemId, BookingStatus status,
+                                                                     LocalDateTime end, LocalDateTime start,
+                                                                     Long bookingId);
+
+    @Query("select b from Booking b, Item i where b.itemId = i.id and i.owner = :ownerId")
+    Page<Booking> findAllByOwnerId(Long ownerId, Pageable pageable);
+
+    @Query("select b from Booking b, Item i where b.itemId = i.id and i.owner = :ownerId " +
+            "and b.start > :localDateTime")
+    Page<Booking> findAllByOwnerIdAndStartAfter(Long ownerId, LocalDateTime localDateTime, Pageable pageable);
+
+    @Query("select b from Booking b, Item i where b.itemId = i.id and i.owner = :ownerId " +
+            "and b.end < :localDateTime")
+    Page<Booking> findAllByOwnerIdAndEndBefore(Long ownerId, LocalDateTime localDateTime, Pageable pageable);
+
+    @Query("select b from Booking b, Item i where b.itemId = i.id and i.owner = :ownerId " +
+            "and b.start < :localDateTime1 and b.end > :localDateTime2")
+    Page<Booking> findAllByOwnerIdAndStartBeforeAndEndAfter(Long ownerId, LocalDateTime localDateTime1,
+                                                            LocalDateTime localDateTime2, Pageable pageable);
 
-    Page<Booking> findAllByEndBefore(LocalDateTime localDateTime, Pageable pageable);
+    @Query("select b from Booking b, Item i where b.itemId = i.id and i.owner = :ownerId " +
+            "and b.status = :status")
+    Page<Booking> findAllByOwnerIdAndStatus(Long ownerId, BookingStatus status, Pageable pageable);
 
-    Page<Booking> findAllByStartBeforeAndEndAfter(LocalDateTime localDateTime1, LocalDateTime localDateTime2,
-                                                  Pageable pageable);
+    @Query("select b from Booking b where b.bookerId = :bookerId " +
+            "and b.start > :startFrom and b.start < :startTo and b.end > :endFrom and b.end < :endTo " +
+            "and b.status in :statuses " +
+            "and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId)) " +
+            "order by b.start desc, b.id desc")
+    List<Booking> findAllByBookerIdBefore(Long bookerId, LocalDateTime startFrom, LocalDateTime startTo,
+                                          LocalDateTime endFrom, LocalDateTime endTo,
+                                          Collection<BookingStatus> statuses, LocalDateTime cursorStart,
+                                          Long cursorId, Pageable pageable);
 
-    Page<Booking> findAll(Pageable pageable);
+    @Query("select b from Booking b, Item i where b.itemId = i.id and i.owner = :ownerId " +
+            "and b.start > :startFrom and b.start < :startTo and b.end > :endFrom and b.end < :endTo " +
+            "and b.status in :statuses " +
+            "and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId)) " +
+            "order by b.start desc, b.id desc")
+    List<Booking> findAllByOwnerIdBefore(Long ownerId, LocalDateTime startFrom, LocalDateTime startTo,
+                                         LocalDateTime endFrom, LocalDateTime endTo,
+                                         Collection<BookingStatus> statuses, LocalDateTime cursorStart,
+                                         Long cursorId, Pageable pageable);
 }
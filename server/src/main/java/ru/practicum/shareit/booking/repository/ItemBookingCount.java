@@ -0,0 +1,8 @@
+package ru.practicum.shareit.booking.repository;
+
+public interface ItemBookingCount {
+
+    Long getItemId();
+
+    Long getBookings();
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.ItemBookingPointers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ItemBookingPointersRepository extends JpaRepository<ItemBookingPointers, Long> {
+
+    @Query("select p.itemId from ItemBookingPointers p where p.validUntil <= :presentTime order by p.itemId")
+    List<Long> findAllItemIdExpiredAt(LocalDateTime presentTime);
+
+    @Query("select distinct b.itemId from Booking b " +
+            "where not exists (select p from ItemBookingPointers p where p.itemId = b.itemId) order by b.itemId")
+    List<Long> findAllItemIdWithoutPointers();
+}
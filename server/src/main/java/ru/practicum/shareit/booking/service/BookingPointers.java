@@ -0,0 +1,249 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.ItemBookingPointers;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingPointersRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Last ended and next starting booking of each item, kept in the {@code item_booking_pointers} table so that
+ * every node reads the same answer.
+ *
+ * <p>Creating bookings moves the pointers under the item row lock. A row stays valid until the next booking starts
+ * or a booking ends; the roll-forward job recomputes expired rows, and until it does they are answered from the
+ * bookings table. Items booked before the table existed get their rows once, at startup.
+ */
+@Component
+@Slf4j
+public class BookingPointers {
+
+    private final ItemBookingPointersRepository pointersRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public BookingPointers(ItemBookingPointersRepository pointersRepository, BookingRepository bookingRepository,
+                           ItemRepository itemRepository, TransactionTemplate transactionTemplate) {
+        this.pointersRepository = pointersRepository;
+        this.bookingRepository = bookingRepository;
+        this.itemRepository = itemRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Moves the pointers of the items of the given bookings; must run in the transaction that saved them, with
+     * the rows of their items already locked by the caller.
+     */
+    public void addAll(Collection<Booking> bookings, LocalDateTime presentTime) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        final Set<Long> itemIds = bookings.stream().map(Booking::getItemId).collect(Collectors.toSet());
+        final Map<Long, ItemBookingPointers> pointers = pointersRepository.findAllById(itemIds)
+                .stream()
+                .collect(Collectors.toMap(ItemBookingPointers::getItemId, Function.identity()));
+        final Set<Long> expired = new HashSet<>();
+        for (Booking booking : bookings) {
+            final Long itemId = booking.getItemId();
+            if (expired.contains(itemId)) {
+                continue;
+            }
+            ItemBookingPointers itemPointers = pointers.get(itemId);
+            if (!booking.getStart().isAfter(presentTime)
+                    || itemPointers != null && isExpired(itemPointers, presentTime)) {
+                expired.add(itemId);
+                continue;
+            }
+            if (itemPointers == null) {
+                // Every booked item has a row since startup, so an item without one has no other bookings.
+                itemPointers = ItemBookingPointers.builder().itemId(itemId).build();
+                pointers.put(itemId, itemPointers);
+            }
+            if (itemPointers.getNextStart() == null || booking.getStart().isBefore(itemPointers.getNextStart())) {
+                itemPointers.setNextBookingId(booking.getId());
+                itemPointers.setNextStart(booking.getStart());
+                if (itemPointers.getValidUntil() == null || booking.getStart().isBefore(itemPointers.getValidUntil())) {
+                    itemPointers.setValidUntil(booking.getStart());
+                }
+            }
+        }
+        pointers.keySet().removeAll(expired);
+        pointersRepository.saveAll(pointers.values());
+        expired.forEach(itemId -> refresh(itemId, presentTime));
+    }
+
+    public void add(Booking booking, LocalDateTime presentTime) {
+        addAll(List.of(booking), presentTime);
+    }
+
+    /**
+     * Returns the last and next booking of each of the given items that has any.
+     */
+    public Map<Long, LastAndNext> findAll(Collection<Long> itemIds, LocalDateTime presentTime) {
+        if (itemIds.isEmpty()) {
+            return Map.of();
+        }
+        final Map<Long, Long> lastIds = new HashMap<>();
+        final Map<Long, Long> nextIds = new HashMap<>();
+        final Map<Long, Booking> bookings = new HashMap<>();
+        final List<Long> expired = new ArrayList<>();
+        for (ItemBookingPointers itemPointers : pointersRepository.findAllById(itemIds)) {
+            if (isExpired(itemPointers, presentTime)) {
+                expired.add(itemPointers.getItemId());
+            } else {
+                putIfNotNull(lastIds, itemPointers.getItemId(), itemPointers.getLastBookingId());
+                putIfNotNull(nextIds, itemPointers.getItemId(), itemPointers.getNextBookingId());
+            }
+        }
+        if (!expired.isEmpty()) {
+            for (Booking booking : bookingRepository.findAllLastByItemIdIn(expired, presentTime)) {
+                lastIds.putIfAbsent(booking.getItemId(), booking.getId());
+                bookings.put(booking.getId(), booking);
+            }
+            for (Booking booking : bookingRepository.findAllNextByItemIdIn(expired, presentTime)) {
+                nextIds.putIfAbsent(booking.getItemId(), booking.getId());
+                bookings.put(booking.getId(), booking);
+            }
+        }
+        final Set<Long> missing = new HashSet<>(lastIds.values());
+        missing.addAll(nextIds.values());
+        missing.removeAll(bookings.keySet());
+        if (!missing.isEmpty()) {
+            bookingRepository.findAllById(missing).forEach(booking -> bookings.put(booking.getId(), booking));
+        }
+        final Map<Long, LastAndNext> result = new HashMap<>();
+        for (Long itemId : itemIds) {
+            final Booking last = bookings.get(lastIds.get(itemId));
+            final Booking next = bookings.get(nextIds.get(itemId));
+            if (last != null || next != null) {
+                result.put(itemId, new LastAndNext(last, next));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Recomputes expired rows.
+     */
+    @Scheduled(fixedDelayString = "${shareit.booking-pointers.roll-forward-delay:60000}")
+    public void rollForward() {
+        final LocalDateTime presentTime = LocalDateTime.now();
+        final List<Long> itemIds = pointersRepository.findAllItemIdExpiredAt(presentTime);
+        refreshAll(itemIds, presentTime);
+        if (!itemIds.isEmpty()) {
+            log.info("Booking pointers rolled forward for {} items", itemIds.size());
+        }
+    }
+
+    /**
+     * Creates the rows of items booked before the table existed, then recomputes expired rows.
+     */
+    @PostConstruct
+    public void warmUp() {
+        final List<Long> itemIds = pointersRepository.findAllItemIdWithoutPointers();
+        refreshAll(itemIds, LocalDateTime.now());
+        if (!itemIds.isEmpty()) {
+            log.info("Booking pointers created for {} items", itemIds.size());
+        }
+        rollForward();
+    }
+
+    /**
+     * Compares the stored last and next booking of the given items with the bookings table and returns
+     * the items that differ.
+     */
+    public List<Long> findInconsistentItems(Collection<Long> itemIds, LocalDateTime presentTime) {
+        final Map<Long, LastAndNext> stored = findAll(itemIds, presentTime);
+        final List<Long> inconsistent = new ArrayList<>();
+        for (Long itemId : itemIds) {
+            final LastAndNext lastAndNext = stored.getOrDefault(itemId, new LastAndNext(null, null));
+            if (!Objects.equals(findLast(itemId, presentTime).map(Booking::getEnd).orElse(null),
+                    timeOf(lastAndNext.getLast(), Booking::getEnd))
+                    || !Objects.equals(findNext(itemId, presentTime).map(Booking::getStart).orElse(null),
+                    timeOf(lastAndNext.getNext(), Booking::getStart))) {
+                inconsistent.add(itemId);
+            }
+        }
+        return inconsistent;
+    }
+
+    private void refreshAll(List<Long> itemIds, LocalDateTime presentTime) {
+        for (Long itemId : itemIds) {
+            transactionTemplate.executeWithoutResult(status -> {
+                itemRepository.findByIdForUpdate(itemId);
+                refresh(itemId, presentTime);
+            });
+        }
+    }
+
+    private void refresh(Long itemId, LocalDateTime presentTime) {
+        final Booking last = findLast(itemId, presentTime).orElse(null);
+        final Booking next = findNext(itemId, presentTime).orElse(null);
+        LocalDateTime validUntil = bookingRepository
+                .findFirstByItemIdAndEndGreaterThanEqualOrderByEndAsc(itemId, presentTime)
+                .map(Booking::getEnd)
+                .orElse(null);
+        if (next != null && (validUntil == null || next.getStart().isBefore(validUntil))) {
+            validUntil = next.getStart();
+        }
+        final ItemBookingPointers itemPointers = pointersRepository.findById(itemId)
+                .orElseGet(() -> ItemBookingPointers.builder().itemId(itemId).build());
+        itemPointers.setLastBookingId(idOf(last));
+        itemPointers.setNextBookingId(idOf(next));
+        itemPointers.setNextStart(next == null ? null : next.getStart());
+        itemPointers.setValidUntil(validUntil);
+        pointersRepository.save(itemPointers);
+    }
+
+    private Optional<Booking> findLast(Long itemId, LocalDateTime presentTime) {
+        return bookingRepository.findFirstByItemIdAndEndBeforeOrderByEndDesc(itemId, presentTime);
+    }
+
+    private Optional<Booking> findNext(Long itemId, LocalDateTime presentTime) {
+        return bookingRepository.findFirstByItemIdAndStartAfterOrderByStartAsc(itemId, presentTime);
+    }
+
+    private static boolean isExpired(ItemBookingPointers itemPointers, LocalDateTime presentTime) {
+        return itemPointers.getValidUntil() != null && !itemPointers.getValidUntil().isAfter(presentTime);
+    }
+
+    private static void putIfNotNull(Map<Long, Long> ids, Long itemId, Long bookingId) {
+        if (bookingId != null) {
+            ids.put(itemId, bookingId);
+        }
+    }
+
+    private static LocalDateTime timeOf(Booking booking, Function<Booking, LocalDateTime> time) {
+        return booking == null ? null : time.apply(booking);
+    }
+
+    private static Long idOf(Booking booking) {
+        return booking == null ? null : booking.getId();
+    }
+
+    @Value
+    public static class LastAndNext {
+        Booking last;
+        Booking next;
+    }
+}
@@ -1,5 +1,7 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingApprovalResult;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 
@@ -9,11 +11,19 @@ public interface BookingService {
 
     BookingDto create(Booking booking, Long bookerId);
 
+    List<BookingBatchResult> createAll(List<Booking> bookings, Long bookerId);
+
     BookingDto approve(Long bookingId, boolean approved, Long bookerId);
 
+    List<BookingApprovalResult> approveAll(List<Long> bookingIds, boolean approved, Long ownerId);
+
     BookingDto findById(Long id, Long userId);
 
     List<BookingDto> findAllByBooker(Long bookerId, String state, Integer from, Integer size);
 
     List<BookingDto> findAllByOwner(Long ownerId, String state, Integer from, Integer size);
+
+    List<BookingDto> findAllByBookerAfter(Long bookerId, String state, String after, Integer size);
+
+    List<BookingDto> findAllByOwnerAfter(Long ownerId, String state, String after, Integer size);
 }
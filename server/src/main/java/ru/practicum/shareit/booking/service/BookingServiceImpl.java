@@ -4,53 +4,143 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingApprovalResult;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.validation.BookingValidation;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSuggester;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class BookingServiceImpl implements BookingService {
 
+    private static final Sort START_DESC = Sort.by(Sort.Direction.DESC, "start", "id");
+    private static final LocalDateTime MIN_TIME = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_TIME = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
     private final BookingRepository bookingRepository;
     private final BookingValidation bookingValidation;
     private final BookingMapper bookingMapper;
     private final ItemRepository itemRepository;
+    private final ItemLocks itemLocks;
+    private final BookingPointers bookingPointers;
+    private final ItemSuggester itemSuggester;
 
     public BookingServiceImpl(BookingRepository bookingRepository, BookingValidation bookingValidation,
-                              BookingMapper bookingMapper, ItemRepository itemRepository) {
+                              BookingMapper bookingMapper, ItemRepository itemRepository, ItemLocks itemLocks,
+                              BookingPointers bookingPointers, ItemSuggester itemSuggester) {
         this.bookingRepository = bookingRepository;
         this.bookingValidation = bookingValidation;
         this.bookingMapper = bookingMapper;
         this.itemRepository = itemRepository;
+        this.itemLocks = itemLocks;
+        this.bookingPointers = bookingPointers;
+        this.itemSuggester = itemSuggester;
     }
 
     @Override
+    @Transactional
     public BookingDto create(Booking booking, Long bookerId) {
-        bookingValidation.bookingValidation(bookerId, booking);
+        final User booker = bookingValidation.bookerIdValidation(bookerId);
+        bookingValidation.datesValidation(booking);
+        // Checked on the locked row, which also holds off concurrent pointer updates of the item.
+        final Item item = bookingValidation.itemForUpdateValidation(booking);
+        bookingValidation.bookingValidation(bookerId, item, booking);
         booking.setBookerId(bookerId);
         booking.setStatus(BookingStatus.WAITING);
         log.info("Creating booking {}, userId={}", booking, bookerId);
-        return bookingMapper.toBookingDto(bookingRepository.save(booking));
+        bookingRepository.save(booking);
+        bookingPointers.add(booking, LocalDateTime.now());
+        itemSuggester.addBookings(item.getId(), 1);
+        return bookingMapper.toBookingDto(booking, booker, item);
+    }
+
+    @Override
+    @Transactional
+    public List<BookingBatchResult> createAll(List<Booking> bookings, Long bookerId) {
+        final User booker = bookingValidation.bookerIdValidation(bookerId);
+        if (bookings.isEmpty()) {
+            return List.of();
+        }
+        final Set<Long> itemIds = bookings.stream().map(Booking::getItemId).collect(Collectors.toSet());
+        final Map<Long, Item> items = itemRepository.findAllByIdForUpdate(itemIds)
+                .stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        final List<Booking> approvedBookings = findApprovedOverlapping(itemIds, bookings);
+        final String[] errors = new String[bookings.size()];
+        final List<Booking> validBookings = new ArrayList<>();
+        for (int i = 0; i < bookings.size(); i++) {
+            final Booking booking = bookings.get(i);
+            try {
+                bookingValidation.datesValidation(booking);
+                final Item item = bookingValidation.itemIdValidation(booking, items);
+                bookingValidation.itemAvailableValidation(item);
+                bookingValidation.ownerCreateBookingValidation(item, bookerId);
+                bookingValidation.overlapValidation(booking, approvedBookings);
+                booking.setBookerId(bookerId);
+                booking.setStatus(BookingStatus.WAITING);
+                validBookings.add(booking);
+            } catch (NotFoundException | ValidationException e) {
+                errors[i] = e.getMessage();
+            }
+        }
+        log.info("Creating {} of {} bookings, userId={}", validBookings.size(), bookings.size(), bookerId);
+        bookingRepository.saveAll(validBookings);
+        bookingPointers.addAll(validBookings, LocalDateTime.now());
+        validBookings.stream()
+                .collect(Collectors.groupingBy(Booking::getItemId, Collectors.counting()))
+                .forEach(itemSuggester::addBookings);
+        final List<BookingBatchResult> results = new ArrayList<>();
+        for (int i = 0; i < bookings.size(); i++) {
+            final Booking booking = bookings.get(i);
+            results.add(BookingBatchResult.builder()
+                    .index(i)
+                    .booking(errors[i] == null
+                            ? bookingMapper.toBookingDto(booking, booker, items.get(booking.getItemId()))
+                            : null)
+                    .error(errors[i])
+                    .build());
+        }
+        return results;
     }
 
     @Override
+    @Transactional
     public BookingDto approve(Long bookingId, boolean approved, Long ownerId) {
-        bookingValidation.bookingIdValidation(bookingId);
-        bookingValidation.bookingBookerValidation(bookingId, ownerId);
-        Booking booking = bookingRepository.findById(bookingId).get();
-        bookingValidation.bookingOwnerValidation(bookingId, ownerId);
-        bookingValidation.approveStatusValidation(bookingId);
+        final Long itemId = bookingValidation.bookingItemIdValidation(bookingId);
+        itemLocks.lockUntilCompletion(itemId);
+        final Item item = itemRepository.findByIdForUpdate(itemId)
+                .orElseThrow(() -> new NotFoundException("Item not found"));
+        // Read only under the item locks, so the status reflects every decision committed before.
+        final Booking booking = bookingValidation.bookingIdValidation(bookingId);
+        bookingValidation.bookingBookerValidation(booking, ownerId);
+        bookingValidation.bookingOwnerValidation(item, ownerId);
+        bookingValidation.approveStatusValidation(booking);
         if (approved) {
+            bookingValidation.approveOverlapValidation(booking);
             booking.setStatus(BookingStatus.APPROVED);
         } else {
             booking.setStatus(BookingStatus.REJECTED);
@@ -61,91 +151,205 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
+    @Transactional
+    public List<BookingApprovalResult> approveAll(List<Long> bookingIds, boolean approved, Long ownerId) {
+        bookingValidation.confirmedUserIdValidation(ownerId);
+        final Set<Long> itemIds = bookingRepository.findAllItemIdByIdInAndOwnerId(bookingIds, ownerId);
+        if (!itemIds.isEmpty()) {
+            itemLocks.lockUntilCompletion(itemIds);
+            itemRepository.findAllByIdForUpdate(itemIds);
+        }
+        // Read only under the item locks, so the statuses reflect every decision committed before.
+        final Map<Long, Booking> bookings = bookingRepository.findAllByIdInAndOwnerIdForUpdate(bookingIds, ownerId)
+                .stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        final List<Booking> approvedBookings = approved
+                ? new ArrayList<>(findApprovedOverlapping(itemIds, bookings.values()))
+                : new ArrayList<>();
+        final BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        final Set<Long> updatedIds = new LinkedHashSet<>();
+        final String[] errors = new String[bookingIds.size()];
+        for (int i = 0; i < bookingIds.size(); i++) {
+            final Long bookingId = bookingIds.get(i);
+            final Booking booking = bookings.get(bookingId);
+            try {
+                if (booking == null) {
+                    throw new NotFoundException("Booking not found");
+                }
+                if (!updatedIds.contains(bookingId)) {
+                    bookingValidation.approveStatusValidation(booking);
+                    if (approved) {
+                        bookingValidation.datesValidation(booking);
+                        bookingValidation.overlapValidation(booking, approvedBookings);
+                        approvedBookings.add(booking);
+                    }
+                    updatedIds.add(bookingId);
+                }
+            } catch (NotFoundException | ValidationException e) {
+                errors[i] = e.getMessage();
+            }
+        }
+        if (!updatedIds.isEmpty() && bookingRepository.updateStatusOfWaiting(updatedIds, status) < updatedIds.size()) {
+            updatedIds.retainAll(bookingRepository.findAllIdByIdInAndStatus(updatedIds, status));
+            for (int i = 0; i < bookingIds.size(); i++) {
+                if (errors[i] == null && !updatedIds.contains(bookingIds.get(i))) {
+                    errors[i] = "The booking is no longer waiting for approval";
+                }
+            }
+        }
+        final List<BookingApprovalResult> results = new ArrayList<>();
+        for (int i = 0; i < bookingIds.size(); i++) {
+            results.add(errors[i] == null
+                    ? BookingApprovalResult.builder().bookingId(bookingIds.get(i)).status(status).build()
+                    : BookingApprovalResult.builder().bookingId(bookingIds.get(i)).error(errors[i]).build());
+        }
+        log.info("Approving {} of {} bookings, approved={}, ownerId={}", updatedIds.size(), bookingIds.size(),
+                approved, ownerId);
+        return results;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public BookingDto findById(Long id, Long userId) {
-        bookingValidation.bookingIdValidation(id);
-        bookingValidation.ownerOrBookerValidation(id, userId);
+        final Booking booking = bookingValidation.bookingIdValidation(id);
+        bookingValidation.ownerOrBookerValidation(booking, bookingValidation.itemIdValidation(booking), userId);
         log.info("Get booking №{}, userId={}", id, userId);
-        return bookingMapper.toBookingDto(bookingRepository.findById(id).get());
+        return bookingMapper.toBookingDto(booking);
     }
 
     @Override
     public List<BookingDto> findAllByBooker(Long bookerId, String bookingState, Integer from, Integer size) {
-        bookingValidation.bookerIdValidation(bookerId);
+        bookingValidation.userIdValidation(bookerId);
         final LocalDateTime presentTime = LocalDateTime.now();
         log.info("Get booking with state {}, bookerId={}, from={}, size={}", bookingState, bookerId, from, size);
         int page = from / size;
         switch (bookingState) {
             case "ALL":
                 return toBookingDtoSortedByTime(bookingRepository.findAllByBookerId(bookerId,
-                        PageRequest.of(page, size, Sort.by("start").descending())).toList());
+                        PageRequest.of(page, size, START_DESC)).toList());
             case "FUTURE":
                 return toBookingDtoSortedByTime(bookingRepository.findAllByBookerIdAndStartAfter(bookerId,
-                        presentTime, PageRequest.of(page, size, Sort.by("start").descending())).toList());
+                        presentTime, PageRequest.of(page, size, START_DESC)).toList());
             case "PAST":
                 return toBookingDtoSortedByTime(bookingRepository.findAllByBookerIdAndEndBefore(bookerId,
-                        presentTime, PageRequest.of(page, size, Sort.by("start").descending())).toList());
+                        presentTime, PageRequest.of(page, size, START_DESC)).toList());
             case "CURRENT":
                 return toBookingDtoSortedByTime(bookingRepository
                         .findAllByBookerIdAndStartBeforeAndEndAfter(bookerId, presentTime, presentTime,
-                                PageRequest.of(page, size, Sort.by("start").descending())).toList());
+                                PageRequest.of(page, size, START_DESC)).toList());
             default:
-                return toBookingDtoSortedByTime(bookingRepository.findAllByBookerId(bookerId,
-                                PageRequest.of(page, size, Sort.by("start").descending()))
-                        .stream()
-                        .filter(booking -> booking.getStatus().name().equals(bookingState))
-                        .collect(Collectors.toList()));
+                return toBookingDtoSortedByTime(bookingRepository.findAllByBookerIdAndStatus(bookerId,
+                        toBookingStatus(bookingState), PageRequest.of(page, size, START_DESC)).toList());
         }
     }
 
     @Override
     public List<BookingDto> findAllByOwner(Long ownerId, String bookingState, Integer from, Integer size) {
-        bookingValidation.bookerIdValidation(ownerId);
+        bookingValidation.userIdValidation(ownerId);
         final LocalDateTime presentTime = LocalDateTime.now();
-        List<Long> itemsId = itemRepository.findAllIdByOwner(ownerId);
-        bookingValidation.itemIdValidation(itemsId);
+        bookingValidation.ownerItemsValidation(ownerId);
         log.info("Get booking with state {}, ownerId={}, from={}, size={}", bookingState, ownerId, from, size);
         int page = from / size;
         switch (bookingState) {
             case "ALL":
-                return toBookingDtoSortedByTime(bookingRepository
-                        .findAll(PageRequest.of(page, size, Sort.by("start").descending()))
-                        .stream()
-                        .filter(booking -> itemsId.contains(booking.getItemId()))
-                        .collect(Collectors.toList()));
+                return toBookingDtoSortedByTime(bookingRepository.findAllByOwnerId(ownerId,
+                        PageRequest.of(page, size, START_DESC)).toList());
             case "FUTURE":
-                return toBookingDtoSortedByTime(bookingRepository
-                        .findAllByStartAfter(presentTime, PageRequest.of(page, size, Sort.by("start").descending()))
-                        .stream()
-                        .filter(booking -> itemsId.contains(booking.getItemId()))
-                        .collect(Collectors.toList()));
+                return toBookingDtoSortedByTime(bookingRepository.findAllByOwnerIdAndStartAfter(ownerId,
+                        presentTime, PageRequest.of(page, size, START_DESC)).toList());
             case "PAST":
-                return toBookingDtoSortedByTime(bookingRepository
-                        .findAllByEndBefore(presentTime, PageRequest.of(page, size, Sort.by("start").descending()))
-                        .stream()
-                        .filter(booking -> itemsId.contains(booking.getItemId()))
-                        .collect(Collectors.toList()));
+                return toBookingDtoSortedByTime(bookingRepository.findAllByOwnerIdAndEndBefore(ownerId,
+                        presentTime, PageRequest.of(page, size, START_DESC)).toList());
             case "CURRENT":
                 return toBookingDtoSortedByTime(bookingRepository
-                        .findAllByStartBeforeAndEndAfter(presentTime, presentTime,
-                                PageRequest.of(page, size, Sort.by("start").descending()))
-                        .stream()
-                        .filter(booking -> itemsId.contains(booking.getItemId()))
-                        .collect(Collectors.toList()));
+                        .findAllByOwnerIdAndStartBeforeAndEndAfter(ownerId, presentTime, presentTime,
+                                PageRequest.of(page, size, START_DESC)).toList());
             default:
-                return toBookingDtoSortedByTime(bookingRepository
-                        .findAll(PageRequest.of(page, size, Sort.by("start").descending()))
-                        .stream()
-                        .filter(booking -> itemsId.contains(booking.getItemId()))
-                        .filter(booking -> booking.getStatus().name().equals(bookingState))
-                        .collect(Collectors.toList()));
+                return toBookingDtoSortedByTime(bookingRepository.findAllByOwnerIdAndStatus(ownerId,
+                        toBookingStatus(bookingState),
+                        PageRequest.of(page, size, START_DESC)).toList());
+        }
+    }
+
+    @Override
+    public List<BookingDto> findAllByBookerAfter(Long bookerId, String bookingState, String after, Integer size) {
+        bookingValidation.userIdValidation(bookerId);
+        final Cursor cursor = Cursor.decodeWithTime(after);
+        final StateWindow window = StateWindow.of(bookingState, LocalDateTime.now());
+        log.info("Get booking with state {}, bookerId={}, after={}, size={}", bookingState, bookerId, after, size);
+        return toBookingDtoSortedByTime(bookingRepository.findAllByBookerIdBefore(bookerId,
+                window.startFrom, window.startTo, window.endFrom, window.endTo, window.statuses,
+                cursor.getTime(), cursor.getId(), PageRequest.of(0, size)));
+    }
+
+    @Override
+    public List<BookingDto> findAllByOwnerAfter(Long ownerId, String bookingState, String after, Integer size) {
+        bookingValidation.userIdValidation(ownerId);
+        bookingValidation.ownerItemsValidation(ownerId);
+        final Cursor cursor = Cursor.decodeWithTime(after);
+        final StateWindow window = StateWindow.of(bookingState, LocalDateTime.now());
+        log.info("Get booking with state {}, ownerId={}, after={}, size={}", bookingState, ownerId, after, size);
+        return toBookingDtoSortedByTime(bookingRepository.findAllByOwnerIdBefore(ownerId,
+                window.startFrom, window.startTo, window.endFrom, window.endTo, window.statuses,
+                cursor.getTime(), cursor.getId(), PageRequest.of(0, size)));
+    }
+
+    /**
+     * Loads the approved bookings of the items overlapping the time span of the given bookings that have dates.
+     */
+    private List<Booking> findApprovedOverlapping(Collection<Long> itemIds, Collection<Booking> bookings) {
+        final List<Booking> dated = bookings.stream()
+                .filter(booking -> booking.getStart() != null && booking.getEnd() != null)
+                .collect(Collectors.toList());
+        if (dated.isEmpty()) {
+            return List.of();
+        }
+        return bookingRepository.findAllByItemIdInAndStatusAndStartBeforeAndEndAfter(itemIds, BookingStatus.APPROVED,
+                dated.stream().map(Booking::getEnd).max(Comparator.naturalOrder()).get(),
+                dated.stream().map(Booking::getStart).min(Comparator.naturalOrder()).get());
+    }
+
+    private static BookingStatus toBookingStatus(String bookingState) {
+        try {
+            return BookingStatus.valueOf(bookingState);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Unknown state: " + bookingState);
         }
     }
 
     private List<BookingDto> toBookingDtoSortedByTime(List<Booking> bookings) {
-        return bookings
+        return bookingMapper.toBookingDtos(bookings)
                 .stream()
-                .map(bookingMapper::toBookingDto)
                 .sorted(Comparator.comparing(BookingDto::getStart).reversed())
                 .collect(Collectors.toList());
     }
+
+    private static final class StateWindow {
+        private LocalDateTime startFrom = MIN_TIME;
+        private LocalDateTime startTo = MAX_TIME;
+        private LocalDateTime endFrom = MIN_TIME;
+        private LocalDateTime endTo = MAX_TIME;
+        private Collection<BookingStatus> statuses = EnumSet.allOf(BookingStatus.class);
+
+        private static StateWindow of(String bookingState, LocalDateTime presentTime) {
+            final StateWindow window = new StateWindow();
+            switch (bookingState) {
+                case "ALL":
+                    break;
+                case "FUTURE":
+                    window.startFrom = presentTime;
+                    break;
+                case "PAST":
+                    window.endTo = presentTime;
+                    break;
+                case "CURRENT":
+                    window.startTo = presentTime;
+                    window.endFrom = presentTime;
+                    break;
+                default:
+                    window.statuses = EnumSet.of(toBookingStatus(bookingState));
+            }
+            return window;
+        }
+    }
 }
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Striped per-item locks that are held until the surrounding transaction completes.
+ */
+@Component
+public class ItemLocks {
+
+    private static final int STRIPES = 256;
+
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    public ItemLocks() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public void lockUntilCompletion(Long itemId) {
+        lockStripe(stripe(itemId));
+    }
+
+    public void lockUntilCompletion(Collection<Long> itemIds) {
+        itemIds.stream()
+                .map(this::stripe)
+                .collect(Collectors.toCollection(TreeSet::new))
+                .forEach(this::lockStripe);
+    }
+
+    private void lockStripe(int stripe) {
+        final ReentrantLock lock = stripes[stripe];
+        lock.lock();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            lock.unlock();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    private int stripe(Long itemId) {
+        return Math.floorMod(Long.hashCode(itemId) * 0x9E3779B9, STRIPES);
+    }
+}
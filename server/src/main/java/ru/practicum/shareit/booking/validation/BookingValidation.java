@@ -5,10 +5,16 @@ import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.*;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemCache;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserExistenceCache;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 @Component
 public class BookingValidation {
@@ -16,82 +22,144 @@ public class BookingValidation {
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
+    private final ItemCache itemCache;
+    private final UserExistenceCache userExistenceCache;
 
     public BookingValidation(UserRepository userRepository, ItemRepository itemRepository,
-                             BookingRepository bookingRepository) {
+                             BookingRepository bookingRepository, ItemCache itemCache,
+                             UserExistenceCache userExistenceCache) {
         this.userRepository = userRepository;
         this.itemRepository = itemRepository;
         this.bookingRepository = bookingRepository;
+        this.itemCache = itemCache;
+        this.userExistenceCache = userExistenceCache;
     }
 
-    public void bookerIdValidation(Long bookerId) {
-        if (userRepository.findById(bookerId).isEmpty()) {
+    public User bookerIdValidation(Long bookerId) {
+        return userRepository.findById(bookerId)
+                .orElseThrow(() -> new NotFoundException("User not found"));
+    }
+
+    public void userIdValidation(Long userId) {
+        if (!userExistenceCache.exists(userId)) {
             throw new NotFoundException("User not found");
         }
     }
 
-    public void itemIdValidation(Booking booking) {
-        if (itemRepository.findById(booking.getItemId()).isEmpty()) {
-            throw new NotFoundException("Item not found");
+    public void confirmedUserIdValidation(Long userId) {
+        if (!userExistenceCache.existsConfirmed(userId)) {
+            throw new NotFoundException("User not found");
         }
     }
 
-    public void itemAvailableValidation(Booking booking) {
-        if (itemRepository.findById(booking.getItemId()).get().getAvailable().equals(false)) {
+    public Item itemIdValidation(Booking booking) {
+        return itemCache.findById(booking.getItemId())
+                .orElseThrow(() -> new NotFoundException("Item not found"));
+    }
+
+    public Item itemForUpdateValidation(Booking booking) {
+        return itemRepository.findByIdForUpdate(booking.getItemId())
+                .orElseThrow(() -> new NotFoundException("Item not found"));
+    }
+
+    public void itemAvailableValidation(Item item) {
+        if (item.getAvailable().equals(false)) {
             throw new ValidationException("Item isn't available for booking");
         }
     }
 
-    public void bookingIdValidation(Long id) {
-        if (bookingRepository.findById(id).isEmpty()) {
-            throw new NotFoundException("Booking not found");
-        }
+    public Booking bookingIdValidation(Long id) {
+        return bookingRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Booking not found"));
     }
 
-    public void bookingOwnerValidation(Long bookingId, Long ownerId) {
-        if (!itemRepository.findById(bookingRepository.findById(bookingId).get().getItemId()).get().getOwner()
-                .equals(ownerId)) {
+    public void bookingOwnerValidation(Item item, Long ownerId) {
+        if (!item.getOwner().equals(ownerId)) {
             throw new ValidationException("User isn't owner");
         }
     }
 
-    public void bookingBookerValidation(Long bookingId, Long userId) {
-        if (bookingRepository.findById(bookingId).get().getBookerId().equals(userId)) {
+    public void bookingBookerValidation(Booking booking, Long userId) {
+        if (booking.getBookerId().equals(userId)) {
             throw new NotFoundException("Booker cannot update the booking data");
         }
     }
 
-    public void ownerOrBookerValidation(Long bookingId, Long userId) {
-        final Booking booking = bookingRepository.findById(bookingId).get();
-        if (!booking.getBookerId().equals(userId) &&
-                !itemRepository.findById(booking.getItemId()).get().getOwner()
-                        .equals(userId)) {
+    public void ownerOrBookerValidation(Booking booking, Item item, Long userId) {
+        if (!booking.getBookerId().equals(userId) && !item.getOwner().equals(userId)) {
             throw new NotFoundException("User isn't owner or booker");
         }
     }
 
-    public void approveStatusValidation(Long bookingId) {
-        if (bookingRepository.findById(bookingId).get().getStatus().equals(BookingStatus.APPROVED)) {
+    public Long bookingItemIdValidation(Long bookingId) {
+        return bookingRepository.findItemIdById(bookingId)
+                .orElseThrow(() -> new NotFoundException("Booking not found"));
+    }
+
+    public void approveStatusValidation(Booking booking) {
+        if (booking.getStatus().equals(BookingStatus.APPROVED)) {
             throw new ValidationException("The booking has already been approved");
         }
+        if (!booking.getStatus().equals(BookingStatus.WAITING)) {
+            throw new ValidationException("The booking has already been "
+                    + booking.getStatus().name().toLowerCase(Locale.ROOT));
+        }
     }
 
-    public void ownerCreateBookingValidation(Booking booking, Long userId) {
-        if (itemRepository.findById(booking.getItemId()).get().getOwner().equals(userId)) {
+    public void ownerCreateBookingValidation(Item item, Long userId) {
+        if (item.getOwner().equals(userId)) {
             throw new NotFoundException("The owner can't book his item");
         }
     }
 
-    public void itemIdValidation(List<Long> itemsId) {
-        if (itemsId.size() == 0) {
+    public void overlapValidation(Booking booking) {
+        if (bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfter(booking.getItemId(),
+                BookingStatus.APPROVED, booking.getEnd(), booking.getStart())) {
+            throw new ValidationException("The item is already booked for this time");
+        }
+    }
+
+    public void approveOverlapValidation(Booking booking) {
+        if (bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfterAndIdNot(booking.getItemId(),
+                BookingStatus.APPROVED, booking.getEnd(), booking.getStart(), booking.getId())) {
+            throw new ValidationException("The item is already booked for this time");
+        }
+    }
+
+    public void datesValidation(Booking booking) {
+        if (booking.getStart() == null || booking.getEnd() == null) {
+            throw new ValidationException("Booking start and end must be set");
+        }
+    }
+
+    public void overlapValidation(Booking booking, List<Booking> approvedBookings) {
+        if (approvedBookings
+                .stream()
+                .anyMatch(approved -> !approved.getId().equals(booking.getId())
+                        && approved.getItemId().equals(booking.getItemId())
+                        && approved.getStart().isBefore(booking.getEnd())
+                        && approved.getEnd().isAfter(booking.getStart()))) {
+            throw new ValidationException("The item is already booked for this time");
+        }
+    }
+
+    public void ownerItemsValidation(Long ownerId) {
+        if (!itemRepository.existsByOwner(ownerId)) {
             throw new ValidationException("The owner doesn't have a single item");
         }
     }
 
-    public void bookingValidation(Long bookerId, Booking booking) {
-        bookerIdValidation(bookerId);
-        itemIdValidation(booking);
-        itemAvailableValidation(booking);
-        ownerCreateBookingValidation(booking, bookerId);
+    public Item itemIdValidation(Booking booking, Map<Long, Item> items) {
+        final Item item = items.get(booking.getItemId());
+        if (item == null) {
+            throw new NotFoundException("Item not found");
+        }
+        return item;
+    }
+
+    public void bookingValidation(Long bookerId, Item item, Booking booking) {
+        itemAvailableValidation(item);
+        ownerCreateBookingValidation(item, bookerId);
+        overlapValidation(booking);
     }
 }
@@ -1,11 +1,16 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreeSlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.service.ItemService;
+
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -41,11 +46,29 @@ public class ItemController {
         return itemService.findAllByOwner(userId, from, size);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public List<FreeSlotDto> findAvailability(@PathVariable Long itemId,
+                                              @RequestHeader("X-Sharer-User-Id") Long userId,
+                                              @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                              LocalDateTime from,
+                                              @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                              LocalDateTime to) {
+        return itemService.findAvailability(itemId, userId, from, to);
+    }
+
+    @GetMapping("/suggest")
+    public List<ItemSuggestionDto> suggest(@RequestParam String prefix,
+                                           @RequestParam(defaultValue = "10") Integer size) {
+        return itemService.suggest(prefix, size);
+    }
+
     @GetMapping("/search")
     public List<ItemDto> findByText(@RequestParam String text,
+                                    @RequestParam(defaultValue = "id") String order,
+                                    @RequestParam(defaultValue = "false") boolean fuzzy,
                                     @RequestParam(defaultValue = "0") Integer from,
                                     @RequestParam(defaultValue = "10") Integer size) {
-        return itemService.findByText(text, from, size);
+        return itemService.findByText(text, order, fuzzy, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
@@ -2,9 +2,14 @@ package ru.practicum.shareit.item.dto;
 
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Component
 public class CommentMapper {
@@ -16,10 +21,27 @@ public class CommentMapper {
     }
 
     public CommentDto toCommentDto(Comment comment) {
+        return toCommentDto(comment, userRepository.findById(comment.getAuthorId()).get().getName());
+    }
+
+    public Map<Long, List<CommentDto>> toCommentDtosByItemId(List<Comment> comments) {
+        final Set<Long> authorIds = comments.stream()
+                .map(Comment::getAuthorId)
+                .collect(Collectors.toSet());
+        final Map<Long, String> authorNames = userRepository.findAllById(authorIds)
+                .stream()
+                .collect(Collectors.toMap(User::getId, User::getName));
+        return comments.stream()
+                .collect(Collectors.groupingBy(Comment::getItemId, Collectors.mapping(
+                        comment -> toCommentDto(comment, authorNames.get(comment.getAuthorId())),
+                        Collectors.toList())));
+    }
+
+    private CommentDto toCommentDto(Comment comment, String authorName) {
         return new CommentDto(
                 comment.getId(),
                 comment.getText(),
-                userRepository.findById(comment.getAuthorId()).get().getName(),
+                authorName,
                 LocalDateTime.now().withNano(0)
         );
     }
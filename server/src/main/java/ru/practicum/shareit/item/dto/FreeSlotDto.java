@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class FreeSlotDto {
+
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+}
@@ -2,25 +2,25 @@ package ru.practicum.shareit.item.dto;
 
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingPointers;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 
 import java.time.LocalDateTime;
-import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Component
 public class ItemMapper {
 
-    private final BookingRepository bookingRepository;
+    private final BookingPointers bookingPointers;
     private final CommentRepository commentRepository;
     private final CommentMapper commentMapper;
 
-    public ItemMapper(BookingRepository bookingRepository, CommentRepository commentRepository,
+    public ItemMapper(BookingPointers bookingPointers, CommentRepository commentRepository,
                       CommentMapper commentMapper) {
-        this.bookingRepository = bookingRepository;
+        this.bookingPointers = bookingPointers;
         this.commentRepository = commentRepository;
         this.commentMapper = commentMapper;
     }
@@ -48,64 +48,42 @@ public class ItemMapper {
     }
 
     public ItemWithBookingDto toItemWithBookingDto(Item item, Long userId) {
-        if (item.getOwner().equals(userId)) {
-            if (lastBooking(item.getId()).size() > 0 && nextBooking(item.getId()).size() > 0) {
-                return ItemWithBookingDto.builder()
-                        .id(item.getId())
-                        .name(item.getName())
-                        .description(item.getDescription())
-                        .available(item.getAvailable())
-                        .lastBooking(lastBooking(item.getId()).get(0))
-                        .nextBooking(nextBooking(item.getId()).get(0))
-                        .comments(commentRepository.findAllByItemId(item.getId())
-                                .stream()
-                                .map(commentMapper::toCommentDto)
-                                .collect(Collectors.toList()))
-                        .requestId(item.getRequestId())
-                        .build();
-            } else {
-                return ItemWithBookingDto.builder()
-                        .id(item.getId())
-                        .name(item.getName())
-                        .description(item.getDescription())
-                        .available(item.getAvailable())
-                        .lastBooking(null)
-                        .nextBooking(null)
-                        .comments(commentRepository.findAllByItemId(item.getId())
-                                .stream()
-                                .map(commentMapper::toCommentDto)
-                                .collect(Collectors.toList()))
-                        .requestId(item.getRequestId())
-                        .build();
-            }
-        } else {
-            return ItemWithBookingDto.builder()
-                    .id(item.getId())
-                    .name(item.getName())
-                    .description(item.getDescription())
-                    .available(item.getAvailable())
-                    .lastBooking(null)
-                    .nextBooking(null)
-                    .comments(commentRepository.findAllByItemId(item.getId())
-                            .stream()
-                            .map(commentMapper::toCommentDto)
-                            .collect(Collectors.toList()))
-                    .requestId(item.getRequestId())
-                    .build();
-        }
+        return toItemWithBookingDtos(List.of(item), userId).get(0);
     }
 
-    private List<Booking> lastBooking(Long itemId) {
-        return bookingRepository.findAllByItemIdAndEndBefore(itemId, LocalDateTime.now())
-                .stream()
-                .sorted(Comparator.comparing(Booking::getEnd).reversed())
+    public List<ItemWithBookingDto> toItemWithBookingDtos(List<Item> items, Long userId) {
+        final List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        final Map<Long, List<CommentDto>> comments = itemIds.isEmpty() ? Map.of()
+                : commentMapper.toCommentDtosByItemId(commentRepository.findAllByItemIdIn(itemIds));
+        final Map<Long, BookingPointers.LastAndNext> bookings = bookingPointers.findAll(items.stream()
+                .filter(item -> item.getOwner().equals(userId))
+                .map(Item::getId)
+                .collect(Collectors.toList()), LocalDateTime.now());
+        return items.stream()
+                .map(item -> toItemWithBookingDto(item, bookings.get(item.getId()),
+                        comments.getOrDefault(item.getId(), List.of())))
                 .collect(Collectors.toList());
     }
 
-    private List<Booking> nextBooking(Long itemId) {
-        return bookingRepository.findAllByItemIdAndStartAfter(itemId, LocalDateTime.now())
-                .stream()
-                .sorted(Comparator.comparing(Booking::getStart))
-                .collect(Collectors.toList());
+    private ItemWithBookingDto toItemWithBookingDto(Item item, BookingPointers.LastAndNext bookings,
+                                                    List<CommentDto> comments) {
+        Booking lastBooking = null;
+        Booking nextBooking = null;
+        if (bookings != null && bookings.getLast() != null && bookings.getNext() != null) {
+            lastBooking = bookings.getLast();
+            nextBooking = bookings.getNext();
+        }
+        return ItemWithBookingDto.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .lastBooking(lastBooking)
+                .nextBooking(nextBooking)
+                .comments(comments)
+                .requestId(item.getRequestId())
+                .build();
     }
 }
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ItemSuggestionDto {
+
+    private final Long id;
+    private final String name;
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.item.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Read-through cache of items by id. Entries are detached copies, so callers may modify what they get.
+ *
+ * <p>A change to an item evicts it immediately and again after commit; an eviction waits for a load of
+ * the same id in progress, so a value read before the commit cannot outlive it. Other nodes keep their
+ * copies until they expire, so the cache only serves read-only mapping; writes check the locked row.
+ */
+@Component
+public class ItemCache {
+
+    private static final long MAXIMUM_SIZE = 10_000;
+    private static final Duration EXPIRE_AFTER_WRITE = Duration.ofMinutes(5);
+
+    private final ItemRepository itemRepository;
+    private final Cache<Long, Item> cache = Caffeine.newBuilder()
+            .maximumSize(MAXIMUM_SIZE)
+            .expireAfterWrite(EXPIRE_AFTER_WRITE)
+            .recordStats()
+            .build();
+
+    public ItemCache(ItemRepository itemRepository, MeterRegistry meterRegistry) {
+        this.itemRepository = itemRepository;
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "items");
+    }
+
+    public Optional<Item> findById(Long itemId) {
+        return Optional.ofNullable(cache.get(itemId, id -> itemRepository.findById(id)
+                        .map(ItemCache::copy)
+                        .orElse(null)))
+                .map(ItemCache::copy);
+    }
+
+    public void evict(Long itemId) {
+        cache.invalidate(itemId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(itemId);
+                }
+            });
+        }
+    }
+
+    private static Item copy(Item item) {
+        return new Item(item.getId(), item.getName(), item.getDescription(), item.getAvailable(), item.getOwner(),
+                item.getRequestId());
+    }
+}
@@ -3,24 +3,35 @@ package ru.practicum.shareit.item.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = :itemId")
+    Optional<Item> findByIdForUpdate(Long itemId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id in :itemIds order by i.id")
+    List<Item> findAllByIdForUpdate(Collection<Long> itemIds);
+
     @Query("select i.id from Item i where i.owner = :ownerId ")
     List<Long> findAllIdByOwner(Long ownerId);
 
-    @Query("select i from Item i " +
-            "where upper(i.name) like upper(concat('%', ?1, '%')) " +
-            " or upper(i.description) like upper(concat('%', ?1, '%'))")
-    Page<Item> findByText(String text, Pageable pageable);
+    boolean existsByOwner(Long ownerId);
+
+    List<Item> findFirst1000ByIdGreaterThanOrderByIdAsc(Long itemId);
 
-    List<Item> findAllByRequestId(Long requestId);
+    List<Item> findAllByRequestIdIn(Collection<Long> requestIds);
 
     Page<Item> findAllByOwner(Long ownerId, Pageable pageable);
 
@@ -0,0 +1,458 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.analysis.Analyzer;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * In-memory inverted index of item names and descriptions for case-insensitive substring search.
+ *
+ * <p>Each field is lower-cased and split into character trigrams, so a query matching any part of a field
+ * shares all its trigrams with it. Candidates from the intersected posting lists are checked against the
+ * indexed text, so a match is exactly a case-insensitive substring of the name or the description.
+ *
+ * <p>Available items have their own posting list, which is intersected first, so a page is filled with
+ * available items only.
+ *
+ * <p>Both fields also go through the {@link Analyzer} chain, and items are posted under the resulting terms.
+ * An item whose terms contain every analyzed query term matches as well, so inflected forms of a word are found
+ * by one query.
+ *
+ * <p>Fuzzy queries also accept dictionary terms within a small edit distance of each query term, found in a
+ * {@link TermDictionary} of the indexed terms. A term leaves the dictionary with the last item posted under it.
+ *
+ * <p>Relevance order ranks the matches with BM25F over the analyzed terms of both fields, the name weighted
+ * higher, keeping only the best {@code offset + size} of them in a bounded heap.
+ *
+ * <p>Result pages are cached by query. A change to an item drops the cached queries that its previous or
+ * current version matches by text or shares a term with, within the edit distance for fuzzy queries.
+ */
+@Component
+@Slf4j
+public class ItemSearchIndex {
+
+    private static final int GRAM_LENGTH = 3;
+    private static final int REBUILD_PAGE_SIZE = 1000;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double NAME_BOOST = 2.0;
+    private static final int TYPO_MIN_LENGTH = 3;
+    private static final int DOUBLE_TYPO_MIN_LENGTH = 6;
+    private static final Comparator<ScoredItem> WORST_FIRST = Comparator
+            .<ScoredItem>comparingDouble(scored -> scored.score)
+            .thenComparing(scored -> scored.indexedItem.item.getId(), Comparator.reverseOrder());
+
+    private final ItemRepository itemRepository;
+    private final SearchResultCache resultCache;
+    private final Analyzer analyzer = Analyzer.russianEnglish();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, IndexedItem> items = new HashMap<>();
+    private final Map<Long, LongPostings> postings = new HashMap<>();
+    private final Map<String, LongPostings> termPostings = new HashMap<>();
+    private final TermDictionary dictionary = new TermDictionary();
+    private final LongPostings available = new LongPostings();
+    private long nameTokens;
+    private long descriptionTokens;
+
+    public ItemSearchIndex(ItemRepository itemRepository, MeterRegistry meterRegistry) {
+        this.itemRepository = itemRepository;
+        this.resultCache = new SearchResultCache(meterRegistry);
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            items.clear();
+            postings.clear();
+            termPostings.clear();
+            dictionary.clear();
+            available.clear();
+            nameTokens = 0;
+            descriptionTokens = 0;
+            resultCache.invalidateAll();
+            List<Item> page = itemRepository.findFirst1000ByIdGreaterThanOrderByIdAsc(0L);
+            while (!page.isEmpty()) {
+                page.forEach(this::index);
+                page = page.size() < REBUILD_PAGE_SIZE ? List.of()
+                        : itemRepository.findFirst1000ByIdGreaterThanOrderByIdAsc(page.get(page.size() - 1).getId());
+            }
+            log.info("Item search index rebuilt for {} items, {} trigrams, {} terms", items.size(), postings.size(),
+                    termPostings.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(Item item) {
+        final Item snapshot = Item.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .owner(item.getOwner())
+                .requestId(item.getRequestId())
+                .build();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write(snapshot);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                write(snapshot);
+            }
+        });
+    }
+
+    public List<Item> findByText(String text, SearchOrder order, boolean fuzzy, Pageable pageable) {
+        final String query = text.toLowerCase(Locale.ROOT);
+        final String[] terms = analyzer.analyze(text);
+        final SearchResultCache.Key key = new SearchResultCache.Key(query, terms, order, fuzzy, pageable.getOffset(),
+                pageable.getPageSize());
+        List<Item> result;
+        lock.readLock().lock();
+        try {
+            result = resultCache.get(key);
+            if (result != null) {
+                return result;
+            }
+            final List<Set<String>> variants = new ArrayList<>(terms.length);
+            for (String term : terms) {
+                variants.add(fuzzy ? variants(term) : Set.of(term));
+            }
+            result = order == SearchOrder.RELEVANCE
+                    ? findRanked(query, terms, variants, pageable)
+                    : findInIdOrder(query, variants, pageable);
+            resultCache.put(key, result);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (resultCache.needsSweep()) {
+            lock.writeLock().lock();
+            try {
+                resultCache.sweep();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        return result;
+    }
+
+    private Set<String> variants(String term) {
+        final Set<String> variants = new HashSet<>(dictionary.search(term, maxDistance(term)));
+        variants.add(term);
+        return variants;
+    }
+
+    private static int maxDistance(String term) {
+        return term.length() >= DOUBLE_TYPO_MIN_LENGTH ? 2 : term.length() >= TYPO_MIN_LENGTH ? 1 : 0;
+    }
+
+    private List<Item> findInIdOrder(String query, List<Set<String>> variants, Pageable pageable) {
+        final List<Item> result = new ArrayList<>();
+        final long[] skip = {pageable.getOffset()};
+        forEachMatch(query, variants, indexedItem -> {
+            if (skip[0]-- <= 0) {
+                result.add(indexedItem.item);
+            }
+            return result.size() < pageable.getPageSize();
+        });
+        return result;
+    }
+
+    private List<Item> findRanked(String query, String[] terms, List<Set<String>> variants, Pageable pageable) {
+        final double[] idf = new double[terms.length];
+        for (int i = 0; i < terms.length; i++) {
+            final int documentFrequency = terms[i].length() < GRAM_LENGTH
+                    ? items.size()
+                    : documentFrequency(terms[i], variants.get(i));
+            idf[i] = Math.log(1 + (items.size() - documentFrequency + 0.5) / (documentFrequency + 0.5));
+        }
+        final double averageNameLength = Math.max(1.0, (double) nameTokens / Math.max(1, items.size()));
+        final double averageDescriptionLength = Math.max(1.0, (double) descriptionTokens / Math.max(1, items.size()));
+        final long limit = pageable.getOffset() + pageable.getPageSize();
+        final PriorityQueue<ScoredItem> heap = new PriorityQueue<>(WORST_FIRST);
+        forEachMatch(query, variants, indexedItem -> {
+            heap.add(new ScoredItem(indexedItem,
+                    indexedItem.score(terms, variants, idf, averageNameLength, averageDescriptionLength)));
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+            return true;
+        });
+        final List<Item> result = new ArrayList<>(heap.size());
+        while (heap.size() > pageable.getOffset()) {
+            result.add(heap.poll().indexedItem.item);
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    private int documentFrequency(String term, Set<String> variants) {
+        int documentFrequency = Integer.MAX_VALUE;
+        for (Long gram : grams(term)) {
+            final LongPostings list = postings.get(gram);
+            documentFrequency = Math.min(documentFrequency, list == null ? 0 : list.size());
+        }
+        if (variants.size() > 1) {
+            int variantFrequency = 0;
+            for (String variant : variants) {
+                final LongPostings list = termPostings.get(variant);
+                variantFrequency += list == null ? 0 : list.size();
+            }
+            documentFrequency = Math.min(items.size(), Math.max(documentFrequency, variantFrequency));
+        }
+        return documentFrequency;
+    }
+
+    /**
+     * Visits available matches in id order until the visitor returns {@code false}. Text candidates are
+     * verified against the indexed fields, term matches are exact.
+     */
+    private void forEachMatch(String query, List<Set<String>> variants, Predicate<IndexedItem> visitor) {
+        final long[] byText = intersect(postings, query.length() < GRAM_LENGTH ? Set.of() : grams(query));
+        final long[] byTerms = termMatches(variants);
+        int i = 0;
+        int j = 0;
+        while (i < byText.length || j < byTerms.length) {
+            final IndexedItem indexedItem;
+            if (j == byTerms.length || i < byText.length && byText[i] < byTerms[j]) {
+                indexedItem = items.get(byText[i++]);
+                if (!indexedItem.matches(query)) {
+                    continue;
+                }
+            } else {
+                if (i < byText.length && byText[i] == byTerms[j]) {
+                    i++;
+                }
+                indexedItem = items.get(byTerms[j++]);
+            }
+            if (!visitor.test(indexedItem)) {
+                return;
+            }
+        }
+    }
+
+    private long[] termMatches(List<Set<String>> variants) {
+        if (variants.isEmpty()) {
+            return new long[0];
+        }
+        final List<long[]> matches = new ArrayList<>(variants.size());
+        for (Set<String> termVariants : variants) {
+            final List<LongPostings> lists = new ArrayList<>(termVariants.size());
+            for (String variant : termVariants) {
+                final LongPostings list = termPostings.get(variant);
+                if (list != null) {
+                    lists.add(list);
+                }
+            }
+            if (lists.isEmpty()) {
+                return new long[0];
+            }
+            matches.add(lists.size() == 1 ? lists.get(0).toArray() : LongPostings.union(lists));
+        }
+        matches.sort(Comparator.comparingInt(ids -> ids.length));
+        long[] ids = matches.get(0);
+        for (int i = 1; i < matches.size() && ids.length > 0; i++) {
+            ids = LongPostings.intersect(ids, ids.length, matches.get(i), matches.get(i).length);
+        }
+        return available.retainAll(ids);
+    }
+
+    private <K> long[] intersect(Map<K, LongPostings> index, Set<K> keys) {
+        final List<LongPostings> lists = new ArrayList<>();
+        lists.add(available);
+        for (K key : keys) {
+            final LongPostings list = index.get(key);
+            if (list == null) {
+                return new long[0];
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(LongPostings::size));
+        long[] ids = lists.get(0).toArray();
+        for (int i = 1; i < lists.size() && ids.length > 0; i++) {
+            ids = lists.get(i).retainAll(ids);
+        }
+        return ids;
+    }
+
+    private void write(Item item) {
+        lock.writeLock().lock();
+        try {
+            final IndexedItem previous = items.get(item.getId());
+            final IndexedItem current = index(item);
+            invalidate(previous);
+            invalidate(current);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void invalidate(IndexedItem indexedItem) {
+        if (indexedItem != null) {
+            resultCache.invalidate(Arrays.asList(indexedItem.name, indexedItem.description), indexedItem.terms(),
+                    key -> affects(key, indexedItem));
+        }
+    }
+
+    private static boolean affects(SearchResultCache.Key key, IndexedItem indexedItem) {
+        if (indexedItem.matches(key.query)) {
+            return true;
+        }
+        final Set<String> itemTerms = indexedItem.terms();
+        for (String term : key.terms) {
+            if (itemTerms.contains(term)) {
+                return true;
+            }
+            if (key.fuzzy) {
+                for (String itemTerm : itemTerms) {
+                    if (TermDictionary.distance(term, itemTerm) <= maxDistance(term)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private IndexedItem index(Item item) {
+        final IndexedItem indexedItem = new IndexedItem(item, analyzer);
+        final IndexedItem previous = items.put(item.getId(), indexedItem);
+        if (previous != null) {
+            nameTokens -= previous.nameTokens.length;
+            descriptionTokens -= previous.descriptionTokens.length;
+        }
+        nameTokens += indexedItem.nameTokens.length;
+        descriptionTokens += indexedItem.descriptionTokens.length;
+        if (Boolean.TRUE.equals(item.getAvailable())) {
+            available.add(item.getId());
+        } else {
+            available.remove(item.getId());
+        }
+        repost(postings, item.getId(), previous == null ? Set.of() : previous.grams(), indexedItem.grams());
+        final Set<String> terms = indexedItem.terms();
+        for (String term : terms) {
+            if (!termPostings.containsKey(term)) {
+                dictionary.add(term);
+            }
+        }
+        repost(termPostings, item.getId(), previous == null ? Set.of() : previous.terms(), terms);
+        if (previous != null) {
+            for (String term : previous.terms()) {
+                if (!termPostings.containsKey(term)) {
+                    dictionary.remove(term);
+                }
+            }
+        }
+        return indexedItem;
+    }
+
+    private static <K> void repost(Map<K, LongPostings> index, long id, Set<K> previousKeys, Set<K> currentKeys) {
+        for (K key : previousKeys) {
+            if (!currentKeys.contains(key)) {
+                final LongPostings list = index.get(key);
+                list.remove(id);
+                if (list.isEmpty()) {
+                    index.remove(key);
+                }
+            }
+        }
+        for (K key : currentKeys) {
+            if (!previousKeys.contains(key)) {
+                index.computeIfAbsent(key, k -> new LongPostings()).add(id);
+            }
+        }
+    }
+
+    private static Set<Long> grams(String... fields) {
+        final Set<Long> grams = new HashSet<>();
+        for (String field : fields) {
+            if (field == null) {
+                continue;
+            }
+            for (int i = 0; i + GRAM_LENGTH <= field.length(); i++) {
+                grams.add((long) field.charAt(i) << 32 | (long) field.charAt(i + 1) << 16 | field.charAt(i + 2));
+            }
+        }
+        return grams;
+    }
+
+    private static final class ScoredItem {
+
+        private final IndexedItem indexedItem;
+        private final double score;
+
+        private ScoredItem(IndexedItem indexedItem, double score) {
+            this.indexedItem = indexedItem;
+            this.score = score;
+        }
+    }
+
+    private static final class IndexedItem {
+
+        private final Item item;
+        private final String name;
+        private final String description;
+        private final String[] nameTokens;
+        private final String[] descriptionTokens;
+
+        private IndexedItem(Item item, Analyzer analyzer) {
+            this.item = item;
+            this.name = item.getName() == null ? null : item.getName().toLowerCase(Locale.ROOT);
+            this.description = item.getDescription() == null ? null : item.getDescription().toLowerCase(Locale.ROOT);
+            this.nameTokens = analyzer.analyze(item.getName());
+            this.descriptionTokens = analyzer.analyze(item.getDescription());
+        }
+
+        private double score(String[] terms, List<Set<String>> variants, double[] idf, double averageNameLength,
+                             double averageDescriptionLength) {
+            final double nameNorm = 1 - B + B * nameTokens.length / averageNameLength;
+            final double descriptionNorm = 1 - B + B * descriptionTokens.length / averageDescriptionLength;
+            double score = 0;
+            for (int i = 0; i < terms.length; i++) {
+                final double frequency = NAME_BOOST * frequency(nameTokens, terms[i], variants.get(i)) / nameNorm
+                        + frequency(descriptionTokens, terms[i], variants.get(i)) / descriptionNorm;
+                score += idf[i] * frequency * (K1 + 1) / (frequency + K1);
+            }
+            return score;
+        }
+
+        private static int frequency(String[] tokens, String term, Set<String> variants) {
+            int frequency = 0;
+            for (String token : tokens) {
+                if (token.contains(term) || variants.contains(token)) {
+                    frequency++;
+                }
+            }
+            return frequency;
+        }
+
+        private boolean matches(String query) {
+            return name != null && name.contains(query) || description != null && description.contains(query);
+        }
+
+        private Set<Long> grams() {
+            return ItemSearchIndex.grams(name, description);
+        }
+
+        private Set<String> terms() {
+            final Set<String> terms = new HashSet<>(Arrays.asList(nameTokens));
+            terms.addAll(Arrays.asList(descriptionTokens));
+            return terms;
+        }
+    }
+}
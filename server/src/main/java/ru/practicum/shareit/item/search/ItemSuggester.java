@@ -0,0 +1,217 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingCount;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Prefix trie over the names of available items, keyed at the start of every word of a name.
+ *
+ * <p>Every node caches the {@value #MAX_SUGGESTIONS} most booked items below it, so a lookup walks the prefix
+ * and returns the cache. A change to an item recomputes the caches bottom-up along its own keys only.
+ */
+@Component
+@Slf4j
+public class ItemSuggester {
+
+    public static final int MAX_SUGGESTIONS = 10;
+    private static final int REBUILD_PAGE_SIZE = 1000;
+    private static final Comparator<Suggestion> MOST_BOOKED_FIRST = Comparator
+            .comparingLong((Suggestion suggestion) -> suggestion.bookings).reversed()
+            .thenComparingLong(suggestion -> suggestion.itemId);
+
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Suggestion> suggestions = new HashMap<>();
+    private final Map<Long, Long> bookings = new HashMap<>();
+    private Node root = new Node();
+
+    public ItemSuggester(ItemRepository itemRepository, BookingRepository bookingRepository) {
+        this.itemRepository = itemRepository;
+        this.bookingRepository = bookingRepository;
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            root = new Node();
+            suggestions.clear();
+            bookings.clear();
+            for (ItemBookingCount count : bookingRepository.countAllGroupByItemId()) {
+                bookings.put(count.getItemId(), count.getBookings());
+            }
+            List<Item> page = itemRepository.findFirst1000ByIdGreaterThanOrderByIdAsc(0L);
+            while (!page.isEmpty()) {
+                page.forEach(this::index);
+                page = page.size() < REBUILD_PAGE_SIZE ? List.of()
+                        : itemRepository.findFirst1000ByIdGreaterThanOrderByIdAsc(page.get(page.size() - 1).getId());
+            }
+            log.info("Item suggester rebuilt for {} items", suggestions.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(Item item) {
+        final Item snapshot = Item.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .available(item.getAvailable())
+                .build();
+        afterCommit(() -> index(snapshot));
+    }
+
+    public void addBookings(Long itemId, long count) {
+        afterCommit(() -> {
+            bookings.merge(itemId, count, Long::sum);
+            final Suggestion previous = suggestions.get(itemId);
+            if (previous != null) {
+                replace(previous, new Suggestion(itemId, previous.name, bookings.get(itemId)));
+            }
+        });
+    }
+
+    public List<ItemSuggestionDto> suggest(String prefix, int size) {
+        final String key = normalize(prefix);
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.children.get(key.charAt(i));
+            }
+            if (node == null) {
+                return List.of();
+            }
+            return node.top
+                    .stream()
+                    .limit(size)
+                    .map(suggestion -> new ItemSuggestionDto(suggestion.itemId, suggestion.name))
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void afterCommit(Runnable update) {
+        final Runnable locked = () -> {
+            lock.writeLock().lock();
+            try {
+                update.run();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            locked.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                locked.run();
+            }
+        });
+    }
+
+    private void index(Item item) {
+        final Suggestion previous = suggestions.get(item.getId());
+        final Suggestion current = Boolean.TRUE.equals(item.getAvailable()) && item.getName() != null
+                ? new Suggestion(item.getId(), item.getName(), bookings.getOrDefault(item.getId(), 0L))
+                : null;
+        replace(previous, current);
+    }
+
+    private void replace(Suggestion previous, Suggestion current) {
+        if (previous != null) {
+            suggestions.remove(previous.itemId);
+            for (String key : previous.keys()) {
+                update(key, previous, null);
+            }
+        }
+        if (current != null) {
+            suggestions.put(current.itemId, current);
+            for (String key : current.keys()) {
+                update(key, null, current);
+            }
+        }
+    }
+
+    private void update(String key, Suggestion removed, Suggestion added) {
+        final Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            path[i + 1] = path[i].children.computeIfAbsent(key.charAt(i), c -> new Node());
+        }
+        final Node last = path[key.length()];
+        if (removed != null) {
+            last.terminals.removeIf(suggestion -> suggestion.itemId == removed.itemId);
+        }
+        if (added != null) {
+            last.terminals.add(added);
+        }
+        for (int i = key.length(); i >= 0; i--) {
+            final Node node = path[i];
+            if (i > 0 && node.terminals.isEmpty() && node.children.isEmpty()) {
+                path[i - 1].children.remove(key.charAt(i - 1));
+                continue;
+            }
+            final List<Suggestion> candidates = new ArrayList<>(node.terminals);
+            node.children.values().forEach(child -> candidates.addAll(child.top));
+            node.top = candidates.stream()
+                    .distinct()
+                    .sorted(MOST_BOOKED_FIRST)
+                    .limit(MAX_SUGGESTIONS)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT).replace('ё', 'е').stripLeading();
+    }
+
+    private static final class Suggestion {
+
+        private final long itemId;
+        private final String name;
+        private final long bookings;
+
+        private Suggestion(long itemId, String name, long bookings) {
+            this.itemId = itemId;
+            this.name = name;
+            this.bookings = bookings;
+        }
+
+        private Set<String> keys() {
+            final String normalized = normalize(name);
+            final Set<String> keys = new HashSet<>();
+            for (int i = 0; i < normalized.length(); i++) {
+                if (Character.isLetterOrDigit(normalized.charAt(i))
+                        && (i == 0 || !Character.isLetterOrDigit(normalized.charAt(i - 1)))) {
+                    keys.add(normalized.substring(i));
+                }
+            }
+            return keys;
+        }
+    }
+
+    private static final class Node {
+
+        private final Map<Character, Node> children = new HashMap<>();
+        private final List<Suggestion> terminals = new ArrayList<>(1);
+        private List<Suggestion> top = List.of();
+    }
+}
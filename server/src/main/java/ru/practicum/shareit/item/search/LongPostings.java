@@ -0,0 +1,92 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sorted list of item ids backed by a primitive array.
+ */
+final class LongPostings {
+
+    private long[] ids = new long[2];
+    private int size;
+
+    void add(long id) {
+        final int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position >= 0) {
+            return;
+        }
+        final int insertion = -position - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        System.arraycopy(ids, insertion, ids, insertion + 1, size - insertion);
+        ids[insertion] = id;
+        size++;
+    }
+
+    void remove(long id) {
+        final int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position < 0) {
+            return;
+        }
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    long[] retainAll(long[] candidates) {
+        return intersect(candidates, candidates.length, ids, size);
+    }
+
+    static long[] intersect(long[] first, int firstSize, long[] second, int secondSize) {
+        final long[] result = new long[Math.min(firstSize, secondSize)];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < firstSize && j < secondSize) {
+            if (first[i] < second[j]) {
+                i++;
+            } else if (first[i] > second[j]) {
+                j++;
+            } else {
+                result[count++] = first[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    static long[] union(List<LongPostings> lists) {
+        final long[] all = new long[lists.stream().mapToInt(LongPostings::size).sum()];
+        int count = 0;
+        for (LongPostings list : lists) {
+            System.arraycopy(list.ids, 0, all, count, list.size);
+            count += list.size;
+        }
+        Arrays.sort(all);
+        int distinct = 0;
+        for (int i = 0; i < all.length; i++) {
+            if (i == 0 || all[i] != all[i - 1]) {
+                all[distinct++] = all[i];
+            }
+        }
+        return Arrays.copyOf(all, distinct);
+    }
+}
@@ -0,0 +1,230 @@
+package ru.practicum.shareit.item.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Pages of search results by query, evicted by an estimate of their memory footprint. The cached items are
+ * the instances held by the index, so an entry only costs its key and the list of references.
+ *
+ * <p>Maintenance runs on the calling thread, so the memory gauge reflects a write as soon as it returns.
+ *
+ * <p>Each cached key is registered under the first letters of its query, its terms and, for fuzzy queries, in a
+ * dictionary of their terms, so a change to an item only checks the keys that its text and terms can reach.
+ * Evicted keys stay registered until the next sweep, which runs once they outnumber the cached ones.
+ */
+final class SearchResultCache {
+
+    static final long MEMORY_BUDGET_BYTES = 4L * 1024 * 1024;
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+    private static final int REFERENCE_BYTES = 8;
+    private static final int TEXT_PREFIX_LENGTH = 3;
+    private static final int MAX_FUZZY_DISTANCE = 2;
+    private static final int SWEEP_SLACK = 1024;
+
+    private final Set<Key> registered = new HashSet<>();
+    private final Map<String, Set<Key>> byText = new HashMap<>();
+    private final Map<String, Set<Key>> byTerm = new HashMap<>();
+    private final Map<String, Set<Key>> byFuzzyTerm = new HashMap<>();
+    private final TermDictionary fuzzyTerms = new TermDictionary();
+    private volatile int registeredCount;
+
+    private final Cache<Key, List<Item>> cache = Caffeine.newBuilder()
+            .maximumWeight(MEMORY_BUDGET_BYTES)
+            .weigher((Key key, List<Item> items) -> ENTRY_OVERHEAD_BYTES + 2 * key.query.length()
+                    + REFERENCE_BYTES * items.size())
+            .executor(Runnable::run)
+            .recordStats()
+            .build();
+
+    SearchResultCache(MeterRegistry meterRegistry) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "itemSearch");
+        Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .tag("cache", "itemSearch")
+                .register(meterRegistry);
+        Gauge.builder("cache.memory", cache, c -> c.policy().eviction()
+                        .map(eviction -> eviction.weightedSize().orElse(0L))
+                        .orElse(0L))
+                .tag("cache", "itemSearch")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    List<Item> get(Key key) {
+        return cache.getIfPresent(key);
+    }
+
+    void put(Key key, List<Item> items) {
+        synchronized (this) {
+            register(key);
+        }
+        cache.put(key, List.copyOf(items));
+    }
+
+    /**
+     * Drops the cached queries that may match an item with the given lower-cased texts and terms and that
+     * the predicate confirms. Must not run concurrently with {@link #put}.
+     */
+    synchronized void invalidate(Collection<String> texts, Set<String> terms, Predicate<Key> affected) {
+        final Set<Key> candidates = new HashSet<>(byText.getOrDefault("", Set.of()));
+        for (String text : texts) {
+            if (text == null) {
+                continue;
+            }
+            for (int i = 0; i < text.length(); i++) {
+                for (int j = i + 1; j <= Math.min(text.length(), i + TEXT_PREFIX_LENGTH); j++) {
+                    candidates.addAll(byText.getOrDefault(text.substring(i, j), Set.of()));
+                }
+            }
+        }
+        for (String term : terms) {
+            candidates.addAll(byTerm.getOrDefault(term, Set.of()));
+            for (String fuzzyTerm : fuzzyTerms.search(term, MAX_FUZZY_DISTANCE)) {
+                candidates.addAll(byFuzzyTerm.get(fuzzyTerm));
+            }
+        }
+        for (Key key : candidates) {
+            if (affected.test(key)) {
+                cache.invalidate(key);
+                unregister(key);
+            }
+        }
+    }
+
+    void invalidateAll() {
+        synchronized (this) {
+            registered.clear();
+            byText.clear();
+            byTerm.clear();
+            byFuzzyTerm.clear();
+            fuzzyTerms.clear();
+            registeredCount = 0;
+        }
+        cache.invalidateAll();
+    }
+
+    boolean needsSweep() {
+        return registeredCount > 2 * cache.estimatedSize() + SWEEP_SLACK;
+    }
+
+    /**
+     * Unregisters the evicted keys. Must not run concurrently with {@link #put}.
+     */
+    synchronized void sweep() {
+        for (Key key : new ArrayList<>(registered)) {
+            if (!cache.asMap().containsKey(key)) {
+                unregister(key);
+            }
+        }
+    }
+
+    private void register(Key key) {
+        if (!registered.add(key)) {
+            return;
+        }
+        registeredCount = registered.size();
+        add(byText, textPrefix(key), key);
+        for (String term : key.terms) {
+            if (key.fuzzy) {
+                if (add(byFuzzyTerm, term, key)) {
+                    fuzzyTerms.add(term);
+                }
+            } else {
+                add(byTerm, term, key);
+            }
+        }
+    }
+
+    private void unregister(Key key) {
+        if (!registered.remove(key)) {
+            return;
+        }
+        registeredCount = registered.size();
+        remove(byText, textPrefix(key), key);
+        for (String term : key.terms) {
+            if (key.fuzzy) {
+                if (remove(byFuzzyTerm, term, key)) {
+                    fuzzyTerms.remove(term);
+                }
+            } else {
+                remove(byTerm, term, key);
+            }
+        }
+    }
+
+    private static String textPrefix(Key key) {
+        return key.query.substring(0, Math.min(key.query.length(), TEXT_PREFIX_LENGTH));
+    }
+
+    /**
+     * Returns whether the key is the first one under the given value.
+     */
+    private static boolean add(Map<String, Set<Key>> index, String value, Key key) {
+        final Set<Key> keys = index.computeIfAbsent(value, v -> new HashSet<>());
+        keys.add(key);
+        return keys.size() == 1;
+    }
+
+    /**
+     * Returns whether the key was the last one under the given value.
+     */
+    private static boolean remove(Map<String, Set<Key>> index, String value, Key key) {
+        final Set<Key> keys = index.get(value);
+        if (keys == null || !keys.remove(key) || !keys.isEmpty()) {
+            return false;
+        }
+        index.remove(value);
+        return true;
+    }
+
+    static final class Key {
+
+        final String query;
+        final String[] terms;
+        final SearchOrder order;
+        final boolean fuzzy;
+        final long offset;
+        final int size;
+
+        Key(String query, String[] terms, SearchOrder order, boolean fuzzy, long offset, int size) {
+            this.query = query;
+            this.terms = terms;
+            this.order = order;
+            this.fuzzy = fuzzy;
+            this.offset = offset;
+            this.size = size;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return fuzzy == key.fuzzy && offset == key.offset && size == key.size && query.equals(key.query)
+                    && order == key.order;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(query, order, fuzzy, offset, size);
+        }
+    }
+}
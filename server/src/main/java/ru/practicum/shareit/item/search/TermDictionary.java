@@ -0,0 +1,300 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Dictionary of terms searched for the terms within a Levenshtein distance of a query term, kept in a trie of the
+ * terms and a trie of the terms reversed.
+ *
+ * <p>A lookup extends one row of the distance matrix per trie level, computing only the cells within the radius of
+ * the diagonal, and leaves a branch as soon as every cell of its row exceeds the radius. Near the root almost every
+ * short prefix is within the radius, so a single walk would still visit much of a large dictionary. Instead the
+ * query is split after its first third: a term within distance {@code k} of it either starts with that head
+ * exactly, or ends within {@code k - 1} of the rest of the query. The forward trie is walked exactly over the head
+ * and the reversed trie within {@code k - 1} over the rest, both widening to {@code k} below, and together they find
+ * every match.
+ *
+ * <p>Each node counts the terms below it: removing a term decrements the counts along its path and lookups skip the
+ * branches left without terms. Their nodes are reclaimed by rebuilding the trie from the remaining terms once they
+ * outnumber the live ones.
+ */
+final class TermDictionary {
+
+    private final Trie forward = new Trie();
+    private final Trie backward = new Trie();
+
+    void add(String term) {
+        forward.add(term);
+        backward.add(reverse(term));
+    }
+
+    void remove(String term) {
+        forward.remove(term);
+        backward.remove(reverse(term));
+    }
+
+    List<String> search(String term, int maxDistance) {
+        final Set<String> result = new LinkedHashSet<>();
+        final int head = term.length() / 3;
+        forward.search(term, maxDistance, head, 0, result::add);
+        if (maxDistance > 0) {
+            backward.search(reverse(term), maxDistance, term.length() - head - (maxDistance - 1), maxDistance - 1,
+                    found -> result.add(reverse(found)));
+        }
+        return new ArrayList<>(result);
+    }
+
+    int size() {
+        return forward.size();
+    }
+
+    void clear() {
+        forward.clear();
+        backward.clear();
+    }
+
+    static int distance(String first, String second) {
+        int[] previous = new int[second.length() + 1];
+        int[] current = new int[second.length() + 1];
+        for (int j = 0; j <= second.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= first.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= second.length(); j++) {
+                final int substitution = previous[j - 1] + (first.charAt(i - 1) == second.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            final int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[second.length()];
+    }
+
+    private static String reverse(String term) {
+        return new StringBuilder(term).reverse().toString();
+    }
+
+    /**
+     * Trie with its nodes in parallel primitive arrays.
+     */
+    private static final class Trie {
+
+        private static final int ROOT = 0;
+        private static final int NONE = -1;
+        private static final int INITIAL_CAPACITY = 16;
+
+        private char[] labels;
+        private int[] firstChild;
+        private int[] nextSibling;
+        private int[] termCounts;
+        private boolean[] terminal;
+        private int nodes;
+        private int deadNodes;
+
+        private Trie() {
+            clear();
+        }
+
+        private void add(String term) {
+            int node = ROOT;
+            for (int i = 0; i < term.length(); i++) {
+                node = child(node, term.charAt(i));
+            }
+            if (terminal[node]) {
+                return;
+            }
+            terminal[node] = true;
+            node = ROOT;
+            for (int i = 0; i <= term.length(); i++) {
+                if (termCounts[node]++ == 0 && node != ROOT) {
+                    deadNodes--;
+                }
+                if (i < term.length()) {
+                    node = find(node, term.charAt(i));
+                }
+            }
+        }
+
+        private void remove(String term) {
+            final int[] path = new int[term.length() + 1];
+            int node = ROOT;
+            for (int i = 0; i < term.length() && node != NONE; i++) {
+                path[i] = node;
+                node = find(node, term.charAt(i));
+            }
+            if (node == NONE || !terminal[node]) {
+                return;
+            }
+            path[term.length()] = node;
+            terminal[node] = false;
+            for (int i = 0; i <= term.length(); i++) {
+                if (--termCounts[path[i]] == 0 && path[i] != ROOT) {
+                    deadNodes++;
+                }
+            }
+            if (deadNodes > nodes - 1 - deadNodes) {
+                compact();
+            }
+        }
+
+        /**
+         * Passes on the terms within {@code maxDistance} of the given one whose prefixes of up to
+         * {@code strictLevels} letters are within {@code strictDistance} of a prefix of it.
+         */
+        private void search(String term, int maxDistance, int strictLevels, int strictDistance,
+                            Consumer<String> result) {
+            if (termCounts[ROOT] == 0) {
+                return;
+            }
+            if (terminal[ROOT] && term.length() <= maxDistance) {
+                result.accept("");
+            }
+            final int[][] rows = new int[term.length() + maxDistance + 1][term.length() + 1];
+            for (int j = 0; j <= term.length(); j++) {
+                rows[0][j] = j;
+            }
+            new Walk(term, maxDistance, strictLevels, strictDistance, rows, result).descend(ROOT, 1);
+        }
+
+        private int size() {
+            return termCounts[ROOT];
+        }
+
+        private void clear() {
+            labels = new char[INITIAL_CAPACITY];
+            firstChild = new int[INITIAL_CAPACITY];
+            nextSibling = new int[INITIAL_CAPACITY];
+            termCounts = new int[INITIAL_CAPACITY];
+            terminal = new boolean[INITIAL_CAPACITY];
+            nodes = 0;
+            deadNodes = 0;
+            newNode((char) 0);
+        }
+
+        private void compact() {
+            final List<String> terms = new ArrayList<>(termCounts[ROOT]);
+            collect(ROOT, new StringBuilder(), terms);
+            clear();
+            terms.forEach(this::add);
+        }
+
+        private void collect(int node, StringBuilder prefix, List<String> terms) {
+            if (terminal[node]) {
+                terms.add(prefix.toString());
+            }
+            for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+                if (termCounts[child] > 0) {
+                    prefix.append(labels[child]);
+                    collect(child, prefix, terms);
+                    prefix.setLength(prefix.length() - 1);
+                }
+            }
+        }
+
+        private int child(int node, char label) {
+            final int existing = find(node, label);
+            if (existing != NONE) {
+                return existing;
+            }
+            final int child = newNode(label);
+            nextSibling[child] = firstChild[node];
+            firstChild[node] = child;
+            return child;
+        }
+
+        private int find(int node, char label) {
+            int child = firstChild[node];
+            while (child != NONE && labels[child] != label) {
+                child = nextSibling[child];
+            }
+            return child;
+        }
+
+        private int newNode(char label) {
+            if (nodes == labels.length) {
+                final int capacity = nodes * 2;
+                labels = Arrays.copyOf(labels, capacity);
+                firstChild = Arrays.copyOf(firstChild, capacity);
+                nextSibling = Arrays.copyOf(nextSibling, capacity);
+                termCounts = Arrays.copyOf(termCounts, capacity);
+                terminal = Arrays.copyOf(terminal, capacity);
+            }
+            labels[nodes] = label;
+            firstChild[nodes] = NONE;
+            nextSibling[nodes] = NONE;
+            termCounts[nodes] = 0;
+            terminal[nodes] = false;
+            if (nodes != ROOT) {
+                deadNodes++;
+            }
+            return nodes++;
+        }
+
+        private final class Walk {
+
+            private final String term;
+            private final int maxDistance;
+            private final int strictLevels;
+            private final int strictDistance;
+            private final int[][] rows;
+            private final Consumer<String> result;
+            private final StringBuilder prefix = new StringBuilder();
+
+            private Walk(String term, int maxDistance, int strictLevels, int strictDistance, int[][] rows,
+                         Consumer<String> result) {
+                this.term = term;
+                this.maxDistance = maxDistance;
+                this.strictLevels = strictLevels;
+                this.strictDistance = strictDistance;
+                this.rows = rows;
+                this.result = result;
+            }
+
+            /**
+             * Fills the row of the given level for each live child of the node, within the band of cells that can
+             * lie within the radius, and descends into the children whose row still has such a cell.
+             */
+            private void descend(int node, int level) {
+                final int[] previous = rows[level - 1];
+                final int[] row = rows[level];
+                final int from = Math.max(1, level - maxDistance);
+                final int to = Math.min(term.length(), level + maxDistance);
+                final int radius = level <= strictLevels ? strictDistance : maxDistance;
+                for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+                    if (termCounts[child] == 0) {
+                        continue;
+                    }
+                    final char label = labels[child];
+                    row[from - 1] = from == 1 ? level : maxDistance + 1;
+                    int best = row[from - 1];
+                    for (int j = from; j <= to; j++) {
+                        final int substitution = previous[j - 1] + (term.charAt(j - 1) == label ? 0 : 1);
+                        row[j] = Math.min(substitution, Math.min(previous[j], row[j - 1]) + 1);
+                        best = Math.min(best, row[j]);
+                    }
+                    if (to < term.length()) {
+                        row[to + 1] = maxDistance + 1;
+                    }
+                    if (best > radius) {
+                        continue;
+                    }
+                    prefix.append(label);
+                    if (terminal[child] && to == term.length() && row[term.length()] <= maxDistance) {
+                        result.accept(prefix.toString());
+                    }
+                    if (level < rows.length - 1) {
+                        descend(child, level + 1);
+                    }
+                    prefix.setLength(prefix.length() - 1);
+                }
+            }
+        }
+    }
+}
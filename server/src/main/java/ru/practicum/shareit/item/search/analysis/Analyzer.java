@@ -0,0 +1,44 @@
+package ru.practicum.shareit.item.search.analysis;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Splits text into words and passes each of them through a chain of {@link TokenFilter}s.
+ */
+public class Analyzer {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final List<TokenFilter> filters;
+
+    public Analyzer(List<TokenFilter> filters) {
+        this.filters = List.copyOf(filters);
+    }
+
+    public static Analyzer russianEnglish() {
+        return new Analyzer(List.of(
+                token -> token.toLowerCase(Locale.ROOT).replace('ё', 'е'),
+                new StopWordFilter(),
+                new RussianLightStemmer(),
+                new EnglishLightStemmer()));
+    }
+
+    public String[] analyze(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        final List<String> terms = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(text)) {
+            for (int i = 0; i < filters.size() && token != null && !token.isEmpty(); i++) {
+                token = filters.get(i).filter(token);
+            }
+            if (token != null && !token.isEmpty()) {
+                terms.add(token);
+            }
+        }
+        return terms.toArray(String[]::new);
+    }
+}
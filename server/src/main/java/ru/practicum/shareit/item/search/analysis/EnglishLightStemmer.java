@@ -0,0 +1,32 @@
+package ru.practicum.shareit.item.search.analysis;
+
+/**
+ * Removes plural and common verb endings from Latin words.
+ */
+public class EnglishLightStemmer implements TokenFilter {
+
+    @Override
+    public String filter(String token) {
+        if (!token.chars().allMatch(c -> c >= 'a' && c <= 'z')) {
+            return token;
+        }
+        final int length = token.length();
+        if (length > 4 && token.endsWith("ies") && !token.endsWith("eies") && !token.endsWith("aies")) {
+            return token.substring(0, length - 3) + "y";
+        }
+        if (length > 4 && (token.endsWith("sses") || token.endsWith("xes") || token.endsWith("ches")
+                || token.endsWith("shes") || token.endsWith("zes"))) {
+            return token.substring(0, length - 2);
+        }
+        if (length > 3 && token.endsWith("s") && !token.endsWith("ss") && !token.endsWith("us")) {
+            return token.substring(0, length - 1);
+        }
+        if (length > 5 && token.endsWith("ing")) {
+            return token.substring(0, length - 3);
+        }
+        if (length > 4 && token.endsWith("ed") && !token.endsWith("eed")) {
+            return token.substring(0, length - 2);
+        }
+        return token;
+    }
+}
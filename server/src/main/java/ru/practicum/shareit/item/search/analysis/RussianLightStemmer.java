@@ -0,0 +1,38 @@
+package ru.practicum.shareit.item.search.analysis;
+
+import java.util.List;
+
+/**
+ * Strips the most common noun and adjective endings from Cyrillic words, keeping at least three letters.
+ */
+public class RussianLightStemmer implements TokenFilter {
+
+    private static final int MIN_STEM_LENGTH = 3;
+    private static final List<String> ENDINGS = List.of(
+            "иями", "ями", "ами", "иях", "ого", "его", "ому", "ему", "ыми", "ими", "ией",
+            "ях", "ах", "ов", "ев", "ей", "ой", "ый", "ий", "ая", "яя", "ое", "ее", "ые", "ие", "ую", "юю",
+            "ом", "ем", "ам", "ям", "ью", "ия",
+            "а", "я", "о", "е", "ы", "и", "у", "ю", "ь", "й");
+
+    @Override
+    public String filter(String token) {
+        if (!isCyrillic(token)) {
+            return token;
+        }
+        for (String ending : ENDINGS) {
+            if (token.endsWith(ending) && token.length() - ending.length() >= MIN_STEM_LENGTH) {
+                return token.substring(0, token.length() - ending.length());
+            }
+        }
+        return token;
+    }
+
+    private static boolean isCyrillic(String token) {
+        for (int i = 0; i < token.length(); i++) {
+            if (Character.UnicodeBlock.of(token.charAt(i)) != Character.UnicodeBlock.CYRILLIC) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.search.analysis;
+
+import java.util.Set;
+
+public class StopWordFilter implements TokenFilter {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "и", "в", "во", "не", "что", "на", "с", "со", "как", "а", "то", "все", "так", "но", "да", "к", "у",
+            "же", "за", "бы", "по", "только", "от", "еще", "нет", "о", "об", "из", "для", "или", "при", "без",
+            "до", "под", "над", "это", "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "if", "in",
+            "into", "is", "it", "no", "not", "of", "on", "or", "such", "that", "the", "their", "then", "there",
+            "these", "they", "this", "to", "was", "will", "with");
+
+    @Override
+    public String filter(String token) {
+        return STOP_WORDS.contains(token) ? null : token;
+    }
+}
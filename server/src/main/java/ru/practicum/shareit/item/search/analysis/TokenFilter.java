@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.search.analysis;
+
+/**
+ * One step of an {@link Analyzer} chain: returns the transformed token, or {@code null} to drop it.
+ */
+@FunctionalInterface
+public interface TokenFilter {
+
+    String filter(String token);
+}
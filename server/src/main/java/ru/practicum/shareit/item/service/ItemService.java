@@ -1,10 +1,13 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreeSlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDto;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -17,7 +20,11 @@ public interface ItemService {
 
     List<ItemWithBookingDto> findAllByOwner(Long userId, Integer from, Integer size);
 
-    List<ItemDto> findByText(String text, Integer from, Integer size);
+    List<FreeSlotDto> findAvailability(Long itemId, Long userId, LocalDateTime from, LocalDateTime to);
+
+    List<ItemSuggestionDto> suggest(String prefix, Integer size);
+
+    List<ItemDto> findByText(String text, String order, boolean fuzzy, Integer from, Integer size);
 
     CommentDto addComment(Comment comment, Long itemId, Long userId);
 }
@@ -3,13 +3,25 @@ package ru.practicum.shareit.item.service;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemCache;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSuggester;
+import ru.practicum.shareit.item.search.SearchOrder;
 import ru.practicum.shareit.item.validation.ItemValidation;
+import ru.practicum.shareit.requests.matching.RequestMatcher;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -18,34 +30,53 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ItemServiceImpl implements ItemService {
 
+    private static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
     private final ItemRepository itemRepository;
     private final ItemMapper itemMapper;
     private final ItemValidation itemValidation;
     private final CommentRepository commentRepository;
     private final CommentMapper commentMapper;
+    private final BookingRepository bookingRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemSuggester itemSuggester;
+    private final ItemCache itemCache;
+    private final RequestMatcher requestMatcher;
 
     public ItemServiceImpl(ItemRepository itemRepository, ItemMapper itemMapper, ItemValidation itemValidation,
-                           CommentRepository commentRepository, CommentMapper commentMapper) {
+                           CommentRepository commentRepository, CommentMapper commentMapper,
+                           BookingRepository bookingRepository, ItemSearchIndex itemSearchIndex,
+                           ItemSuggester itemSuggester, ItemCache itemCache, RequestMatcher requestMatcher) {
         this.itemRepository = itemRepository;
         this.itemMapper = itemMapper;
         this.itemValidation = itemValidation;
         this.commentRepository = commentRepository;
         this.commentMapper = commentMapper;
+        this.bookingRepository = bookingRepository;
+        this.itemSearchIndex = itemSearchIndex;
+        this.itemSuggester = itemSuggester;
+        this.itemCache = itemCache;
+        this.requestMatcher = requestMatcher;
     }
 
     @Override
     public ItemDto add(ItemDto itemDto, Long userId) {
-        itemValidation.userIdValidation(userId);
+        itemValidation.confirmedUserIdValidation(userId);
         itemDto.setOwner(userId);
         log.info("Creating item {}", itemDto);
-        return itemMapper.toItemDto(itemRepository.save(itemMapper.fromItemDto(itemDto)));
+        final Item item = itemRepository.save(itemMapper.fromItemDto(itemDto));
+        itemCache.evict(item.getId());
+        itemSearchIndex.put(item);
+        itemSuggester.put(item);
+        requestMatcher.addItem(item);
+        return itemMapper.toItemDto(item);
     }
 
     @Override
+    @Transactional
     public ItemDto update(ItemDto itemDto, Long itemId, Long userId) {
-        itemValidation.itemIdValidation(itemId);
-        itemValidation.userIdValidation(userId);
-        Item item = itemRepository.findById(itemId).get();
+        Item item = itemValidation.itemForUpdateValidation(itemId);
+        itemValidation.confirmedUserIdValidation(userId);
         itemValidation.itemOwnerValidation(item, userId);
         if (itemDto.getName() != null) {
             item.setName(itemDto.getName());
@@ -57,34 +88,69 @@ public class ItemServiceImpl implements ItemService {
             item.setAvailable(itemDto.getAvailable());
         }
         log.info("Update item №{}", itemId);
-        return itemMapper.toItemDto(itemRepository.save(item));
+        item = itemRepository.save(item);
+        itemCache.evict(itemId);
+        itemSearchIndex.put(item);
+        itemSuggester.put(item);
+        requestMatcher.updateItem(item);
+        return itemMapper.toItemDto(item);
     }
 
     @Override
     public ItemWithBookingDto findById(Long itemId, Long userId) {
-        itemValidation.itemIdValidation(itemId);
+        Item item = itemValidation.itemIdValidation(itemId);
         itemValidation.userIdValidation(userId);
         log.info("Get item №{}", itemId);
-        return itemMapper.toItemWithBookingDto(itemRepository.findById(itemId).get(), userId);
+        return itemMapper.toItemWithBookingDto(item, userId);
     }
 
     @Override
     public List<ItemWithBookingDto> findAllByOwner(Long userId, Integer from, Integer size) {
         itemValidation.userIdValidation(userId);
         log.info("Get items by owner №{}, from={}, size={}", userId, from, size);
-        return itemRepository.findAllByOwner(userId, PageRequest.of(from / size, size))
+        return itemMapper.toItemWithBookingDtos(itemRepository.findAllByOwner(userId, PageRequest.of(from / size, size))
+                        .getContent(), userId)
                 .stream()
-                .map(item -> itemMapper.toItemWithBookingDto(item, userId))
                 .sorted(Comparator.comparing(ItemWithBookingDto::getId))
                 .collect(Collectors.toList());
     }
 
     @Override
-    public List<ItemDto> findByText(String text, Integer from, Integer size) {
-        log.info("Get items by text={}, from={}, size={}", text, from, size);
-        return itemRepository.findByText(text, PageRequest.of(from / size, size))
+    public List<FreeSlotDto> findAvailability(Long itemId, Long userId, LocalDateTime from, LocalDateTime to) {
+        itemValidation.itemIdValidation(itemId);
+        itemValidation.userIdValidation(userId);
+        itemValidation.availabilityRangeValidation(from, to);
+        log.info("Get availability of item №{}, from={}, to={}", itemId, from, to);
+        final List<FreeSlotDto> freeSlots = new ArrayList<>();
+        LocalDateTime freeFrom = from;
+        for (Booking booking : bookingRepository.findAllByItemIdAndStatusInAndStartBeforeAndEndAfterOrderByStartAsc(
+                itemId, ACTIVE_STATUSES, to, from)) {
+            if (booking.getStart().isAfter(freeFrom)) {
+                freeSlots.add(FreeSlotDto.builder().start(freeFrom).end(booking.getStart()).build());
+            }
+            if (booking.getEnd().isAfter(freeFrom)) {
+                freeFrom = booking.getEnd();
+            }
+        }
+        if (freeFrom.isBefore(to)) {
+            freeSlots.add(FreeSlotDto.builder().start(freeFrom).end(to).build());
+        }
+        return freeSlots;
+    }
+
+    @Override
+    public List<ItemSuggestionDto> suggest(String prefix, Integer size) {
+        log.info("Get item suggestions by prefix={}, size={}", prefix, size);
+        return itemSuggester.suggest(prefix, size);
+    }
+
+    @Override
+    public List<ItemDto> findByText(String text, String order, boolean fuzzy, Integer from, Integer size) {
+        final SearchOrder searchOrder = SearchOrder.from(order)
+                .orElseThrow(() -> new ValidationException("Unknown order: " + order));
+        log.info("Get items by text={}, order={}, fuzzy={}, from={}, size={}", text, searchOrder, fuzzy, from, size);
+        return itemSearchIndex.findByText(text, searchOrder, fuzzy, PageRequest.of(from / size, size))
                 .stream()
-                .filter(Item -> Item.getAvailable().equals(true))
                 .map(itemMapper::toItemDto)
                 .collect(Collectors.toList());
     }
@@ -5,43 +5,62 @@ import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.*;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemCache;
 import ru.practicum.shareit.item.repository.ItemRepository;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.repository.UserExistenceCache;
 
 import java.time.LocalDateTime;
 
 @Component
 public class ItemValidation {
 
-    private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
     private final ItemRepository itemRepository;
+    private final ItemCache itemCache;
     private final BookingRepository bookingRepository;
 
-    public ItemValidation(UserRepository userRepository, ItemRepository itemRepository,
+    public ItemValidation(UserExistenceCache userExistenceCache, ItemRepository itemRepository, ItemCache itemCache,
                           BookingRepository bookingRepository) {
-        this.userRepository = userRepository;
+        this.userExistenceCache = userExistenceCache;
         this.itemRepository = itemRepository;
+        this.itemCache = itemCache;
         this.bookingRepository = bookingRepository;
     }
 
     public void userIdValidation(Long userId) {
-        if (userRepository.findById(userId).isEmpty()) {
+        if (!userExistenceCache.exists(userId)) {
             throw new NotFoundException("User not found");
         }
     }
 
-    public void itemIdValidation(Long itemId) {
-        if (itemRepository.findById(itemId).isEmpty()) {
-            throw new NotFoundException("Item not found");
+    public void confirmedUserIdValidation(Long userId) {
+        if (!userExistenceCache.existsConfirmed(userId)) {
+            throw new NotFoundException("User not found");
         }
     }
 
+    public Item itemIdValidation(Long itemId) {
+        return itemCache.findById(itemId)
+                .orElseThrow(() -> new NotFoundException("Item not found"));
+    }
+
+    public Item itemForUpdateValidation(Long itemId) {
+        return itemRepository.findByIdForUpdate(itemId)
+                .orElseThrow(() -> new NotFoundException("Item not found"));
+    }
+
     public void itemOwnerValidation(Item item, Long userId) {
         if (!item.getOwner().equals(userId)) {
             throw new NotFoundException("User isn't owner");
         }
     }
 
+    public void availabilityRangeValidation(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new ValidationException("The start of the range must be before its end");
+        }
+    }
+
     public void commentValidation(Long itemId, Long userId) {
         if (bookingRepository.findAllByItemIdAndBookerId(itemId, userId)
                 .stream()
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.Data;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Opaque keyset position in a list ordered by id, or by a timestamp and then id.
+ *
+ * <p>Sent to clients in the {@link #HEADER} response header and accepted back in the {@code after} parameter.
+ */
+@Data
+public class Cursor {
+
+    public static final String HEADER = "X-Next-Cursor";
+
+    private static final String SEPARATOR = ",";
+
+    private final LocalDateTime time;
+    private final Long id;
+
+    public static Cursor of(Long id) {
+        return new Cursor(null, id);
+    }
+
+    public static Cursor of(LocalDateTime time, Long id) {
+        return new Cursor(time, id);
+    }
+
+    public static Cursor decode(String cursor) {
+        String[] parts = split(cursor, 1);
+        try {
+            return of(Long.parseLong(parts[0]));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public static Cursor decodeWithTime(String cursor) {
+        String[] parts = split(cursor, 2);
+        try {
+            return of(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationException("Invalid cursor: " + cursor);
+        }
+    }
+
+    /**
+     * Returns the page, with the cursor of its last element in the {@link #HEADER} header if the page is full.
+     */
+    public static <T> ResponseEntity<List<T>> withNextCursor(List<T> page, Integer size, Function<T, Cursor> cursorOf) {
+        if (page.isEmpty() || page.size() < size) {
+            return ResponseEntity.ok(page);
+        }
+        return ResponseEntity.ok()
+                .header(HEADER, cursorOf.apply(page.get(page.size() - 1)).encode())
+                .body(page);
+    }
+
+    public String encode() {
+        String value = time == null ? String.valueOf(id) : time + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] split(String cursor, int length) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split(SEPARATOR);
+            if (parts.length == length) {
+                return parts;
+            }
+        } catch (IllegalArgumentException e) {
+            // Reported below like any other malformed cursor.
+        }
+        throw new ValidationException("Invalid cursor: " + cursor);
+    }
+}
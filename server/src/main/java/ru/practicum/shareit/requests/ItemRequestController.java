@@ -1,7 +1,10 @@
 package ru.practicum.shareit.requests;
 
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.requests.dto.ItemRequestDto;
+import ru.practicum.shareit.requests.dto.RequestMatchDto;
 import ru.practicum.shareit.requests.model.ItemRequest;
 import ru.practicum.shareit.requests.service.ItemRequestService;
 
@@ -28,10 +31,22 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public List<ItemRequestDto> findAll(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                        @RequestParam(defaultValue = "0") Integer from,
-                                        @RequestParam(defaultValue = "10") Integer size) {
-        return itemRequestService.findAll(userId, from, size);
+    public ResponseEntity<List<ItemRequestDto>> findAll(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                        @RequestParam(defaultValue = "0") Integer from,
+                                                        @RequestParam(defaultValue = "10") Integer size,
+                                                        @RequestParam(required = false) String after) {
+        final List<ItemRequestDto> itemRequests = after != null
+                ? itemRequestService.findAllAfter(userId, after, size)
+                : itemRequestService.findAll(userId, from, size);
+        return Cursor.withNextCursor(itemRequests, size,
+                itemRequest -> Cursor.of(itemRequest.getCreated(), itemRequest.getId()));
+    }
+
+    @GetMapping("/inbox")
+    public List<RequestMatchDto> findInbox(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                           @RequestParam(defaultValue = "0") Integer from,
+                                           @RequestParam(defaultValue = "10") Integer size) {
+        return itemRequestService.findInbox(userId, from, size);
     }
 
     @GetMapping("/{requestId}")
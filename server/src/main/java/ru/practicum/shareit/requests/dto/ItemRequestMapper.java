@@ -1,10 +1,13 @@
 package ru.practicum.shareit.requests.dto;
 
 import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.requests.model.ItemRequest;
 
-import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Component
 public class ItemRequestMapper {
@@ -16,11 +19,25 @@ public class ItemRequestMapper {
     }
 
     public ItemRequestDto toItemRequestDto(ItemRequest itemRequest) {
-        return new ItemRequestDto(
-                itemRequest.getId(),
-                itemRequest.getDescription(),
-                LocalDateTime.now().withNano(0),
-                itemRepository.findAllByRequestId(itemRequest.getId())
-        );
+        return toItemRequestDtos(List.of(itemRequest)).get(0);
+    }
+
+    public List<ItemRequestDto> toItemRequestDtos(List<ItemRequest> itemRequests) {
+        if (itemRequests.isEmpty()) {
+            return List.of();
+        }
+        final Map<Long, List<Item>> items = itemRepository.findAllByRequestIdIn(itemRequests
+                        .stream()
+                        .map(ItemRequest::getId)
+                        .collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.groupingBy(Item::getRequestId));
+        return itemRequests.stream()
+                .map(itemRequest -> new ItemRequestDto(
+                        itemRequest.getId(),
+                        itemRequest.getDescription(),
+                        itemRequest.getCreated(),
+                        items.getOrDefault(itemRequest.getId(), List.of())))
+                .collect(Collectors.toList());
     }
 }
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.requests.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class RequestMatchDto {
+
+    private final Long requestId;
+    private final String description;
+    private final LocalDateTime created;
+    private final Long itemId;
+    private final String itemName;
+}
@@ -0,0 +1,353 @@
+package ru.practicum.shareit.requests.matching;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.analysis.Analyzer;
+import ru.practicum.shareit.requests.dto.RequestMatchDto;
+import ru.practicum.shareit.requests.model.ItemRequest;
+import ru.practicum.shareit.requests.model.RequestMatch;
+import ru.practicum.shareit.requests.repository.ItemRequestRepository;
+import ru.practicum.shareit.requests.repository.RequestMatchRepository;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiPredicate;
+import java.util.function.Supplier;
+
+/**
+ * Matches open item requests against the names of available items and delivers the matches to the owners
+ * of the items.
+ *
+ * <p>Request descriptions and item names are analyzed into terms and posted in two inverted indexes, so a new
+ * item only looks at the requests sharing a term with its name, and a new request only at the items sharing
+ * a term with its description. A pair matches when it shares {@value #MIN_SHARED_TERMS} terms, or every term
+ * of the shorter side, and each new item or request is delivered at most {@value #MAX_MATCHES} times, best
+ * matches first. A pair is delivered once, by whichever of the two was indexed later. A request is open until
+ * an item is added in answer to it.
+ *
+ * <p>Every user has an inbox of the latest {@value #MAX_INBOX_SIZE} matches, newest first, stored in the
+ * {@code request_matches} table. Matches are scored under the read lock and written after it is released.
+ */
+@Component
+@Slf4j
+public class RequestMatcher {
+
+    public static final int MAX_INBOX_SIZE = 100;
+    public static final int MAX_MATCHES = 20;
+    public static final int MIN_SHARED_TERMS = 2;
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final RequestMatchRepository requestMatchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Analyzer analyzer = Analyzer.russianEnglish();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, IndexedRequest> requests = new HashMap<>();
+    private final Map<String, Set<Long>> requestTerms = new HashMap<>();
+    private final Map<Long, IndexedItem> items = new HashMap<>();
+    private final Map<String, Set<Long>> itemTerms = new HashMap<>();
+    private long sequence;
+
+    public RequestMatcher(ItemRepository itemRepository, ItemRequestRepository itemRequestRepository,
+                          RequestMatchRepository requestMatchRepository, PlatformTransactionManager transactionManager) {
+        this.itemRepository = itemRepository;
+        this.itemRequestRepository = itemRequestRepository;
+        this.requestMatchRepository = requestMatchRepository;
+        // Matches are written after the triggering transaction commits, so they need a transaction of their own.
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            requests.clear();
+            requestTerms.clear();
+            items.clear();
+            itemTerms.clear();
+            final Set<Long> answered = new HashSet<>();
+            List<Item> itemPage = itemRepository.findFirst1000ByIdGreaterThanOrderByIdAsc(0L);
+            while (!itemPage.isEmpty()) {
+                for (Item item : itemPage) {
+                    indexItem(item);
+                    if (item.getRequestId() != null) {
+                        answered.add(item.getRequestId());
+                    }
+                }
+                itemPage = itemPage.size() < REBUILD_PAGE_SIZE ? List.of() : itemRepository
+                        .findFirst1000ByIdGreaterThanOrderByIdAsc(itemPage.get(itemPage.size() - 1).getId());
+            }
+            List<ItemRequest> requestPage = itemRequestRepository.findFirst1000ByIdGreaterThanOrderByIdAsc(0L);
+            while (!requestPage.isEmpty()) {
+                requestPage.stream()
+                        .filter(itemRequest -> !answered.contains(itemRequest.getId()))
+                        .map(this::toIndexedRequest)
+                        .forEach(this::indexRequest);
+                requestPage = requestPage.size() < REBUILD_PAGE_SIZE ? List.of() : itemRequestRepository
+                        .findFirst1000ByIdGreaterThanOrderByIdAsc(requestPage.get(requestPage.size() - 1).getId());
+            }
+            log.info("Request matcher rebuilt for {} open requests and {} items", requests.size(), items.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes a new item, closes the request it answers and delivers the open requests matching its name.
+     */
+    public void addItem(Item item) {
+        final Item snapshot = snapshot(item);
+        afterCommit(() -> {
+            final IndexedItem indexedItem = locked(lock.writeLock(), () -> {
+                if (snapshot.getRequestId() != null) {
+                    unindexRequest(snapshot.getRequestId());
+                }
+                return indexItem(snapshot);
+            });
+            if (indexedItem == null) {
+                return;
+            }
+            deliver(locked(lock.readLock(), () -> {
+                final List<RequestMatch> matches = new ArrayList<>();
+                for (Long requestId : bestMatches(requestTerms, indexedItem.terms, (requestId, shared) -> {
+                    final IndexedRequest indexedRequest = requests.get(requestId);
+                    return indexedRequest.sequence < indexedItem.sequence
+                            && !indexedRequest.requesterId.equals(indexedItem.owner)
+                            && shared >= requiredSharedTerms(indexedRequest.terms, indexedItem.terms);
+                })) {
+                    matches.add(toMatch(requests.get(requestId), indexedItem));
+                }
+                return matches;
+            }));
+        });
+    }
+
+    /**
+     * Reindexes an updated item without delivering anything.
+     */
+    public void updateItem(Item item) {
+        final Item snapshot = snapshot(item);
+        afterCommit(() -> locked(lock.writeLock(), () -> indexItem(snapshot)));
+    }
+
+    /**
+     * Indexes a new request and delivers it to the owners of the available items matching its description.
+     */
+    public void addRequest(ItemRequest itemRequest) {
+        final IndexedRequest snapshot = toIndexedRequest(itemRequest);
+        afterCommit(() -> {
+            final IndexedRequest indexedRequest = locked(lock.writeLock(), () -> indexRequest(snapshot));
+            if (indexedRequest == null) {
+                return;
+            }
+            deliver(locked(lock.readLock(), () -> {
+                final List<RequestMatch> matches = new ArrayList<>();
+                for (Long itemId : bestMatches(itemTerms, indexedRequest.terms, (itemId, shared) -> {
+                    final IndexedItem indexedItem = items.get(itemId);
+                    return indexedItem.sequence < indexedRequest.sequence
+                            && !indexedItem.owner.equals(indexedRequest.requesterId)
+                            && shared >= requiredSharedTerms(indexedRequest.terms, indexedItem.terms);
+                })) {
+                    matches.add(toMatch(indexedRequest, items.get(itemId)));
+                }
+                return matches;
+            }));
+        });
+    }
+
+    public List<RequestMatchDto> findInbox(Long userId, int from, int size) {
+        return requestMatchRepository.findInbox(userId, PageRequest.of(from / size, size));
+    }
+
+    private void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+
+    private static <T> T locked(Lock held, Supplier<T> action) {
+        held.lock();
+        try {
+            return action.get();
+        } finally {
+            held.unlock();
+        }
+    }
+
+    /**
+     * Saves the matches and trims the inboxes they were delivered to.
+     */
+    private void deliver(List<RequestMatch> matches) {
+        if (matches.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            requestMatchRepository.saveAll(matches);
+            matches.stream().map(RequestMatch::getRecipientId).distinct().forEach(recipientId ->
+                    requestMatchRepository.findAllIdByRecipientId(recipientId, PageRequest.of(MAX_INBOX_SIZE, 1))
+                            .forEach(oldestId -> requestMatchRepository.deleteAllByRecipientIdUpTo(recipientId,
+                                    oldestId)));
+        });
+    }
+
+    private static RequestMatch toMatch(IndexedRequest indexedRequest, IndexedItem indexedItem) {
+        return RequestMatch.builder()
+                .recipientId(indexedItem.owner)
+                .requestId(indexedRequest.id)
+                .itemId(indexedItem.id)
+                .build();
+    }
+
+    private IndexedRequest indexRequest(IndexedRequest indexedRequest) {
+        if (indexedRequest.terms.isEmpty()) {
+            return null;
+        }
+        indexedRequest.sequence = ++sequence;
+        requests.put(indexedRequest.id, indexedRequest);
+        post(requestTerms, indexedRequest.id, Set.of(), indexedRequest.terms);
+        return indexedRequest;
+    }
+
+    private void unindexRequest(Long requestId) {
+        final IndexedRequest previous = requests.remove(requestId);
+        if (previous != null) {
+            post(requestTerms, requestId, previous.terms, Set.of());
+        }
+    }
+
+    private IndexedItem indexItem(Item item) {
+        final IndexedItem previous = items.remove(item.getId());
+        final IndexedItem current = Boolean.TRUE.equals(item.getAvailable())
+                ? new IndexedItem(item.getId(), item.getOwner(), item.getName(), terms(item.getName()))
+                : null;
+        if (current != null && !current.terms.isEmpty()) {
+            current.sequence = ++sequence;
+            items.put(current.id, current);
+            post(itemTerms, current.id, previous == null ? Set.of() : previous.terms, current.terms);
+            return current;
+        }
+        if (previous != null) {
+            post(itemTerms, previous.id, previous.terms, Set.of());
+        }
+        return null;
+    }
+
+    private IndexedRequest toIndexedRequest(ItemRequest itemRequest) {
+        return new IndexedRequest(itemRequest.getId(), itemRequest.getRequesterId(), itemRequest.getDescription(),
+                itemRequest.getCreated(), terms(itemRequest.getDescription()));
+    }
+
+    private Set<String> terms(String text) {
+        return Set.of(Arrays.stream(analyzer.analyze(text)).distinct().toArray(String[]::new));
+    }
+
+    private static Item snapshot(Item item) {
+        return Item.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .available(item.getAvailable())
+                .owner(item.getOwner())
+                .requestId(item.getRequestId())
+                .build();
+    }
+
+    /**
+     * Returns up to {@value #MAX_MATCHES} accepted ids sharing the most terms, in ascending order so that
+     * the newest lands first in the inboxes.
+     */
+    private static List<Long> bestMatches(Map<String, Set<Long>> index, Set<String> terms,
+                                          BiPredicate<Long, Integer> accepted) {
+        final Map<Long, Integer> shared = new HashMap<>();
+        for (String term : terms) {
+            for (Long id : index.getOrDefault(term, Set.of())) {
+                shared.merge(id, 1, Integer::sum);
+            }
+        }
+        final List<Long> best = new ArrayList<>();
+        shared.entrySet()
+                .stream()
+                .filter(entry -> accepted.test(entry.getKey(), entry.getValue()))
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+                .limit(MAX_MATCHES)
+                .forEach(entry -> best.add(entry.getKey()));
+        Collections.sort(best);
+        return best;
+    }
+
+    private static int requiredSharedTerms(Set<String> requestTerms, Set<String> itemTerms) {
+        return Math.min(MIN_SHARED_TERMS, Math.min(requestTerms.size(), itemTerms.size()));
+    }
+
+    private static void post(Map<String, Set<Long>> index, long id, Set<String> previousTerms,
+                             Set<String> currentTerms) {
+        for (String term : previousTerms) {
+            if (!currentTerms.contains(term)) {
+                final Set<Long> ids = index.get(term);
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    index.remove(term);
+                }
+            }
+        }
+        for (String term : currentTerms) {
+            index.computeIfAbsent(term, t -> new HashSet<>()).add(id);
+        }
+    }
+
+    private static final class IndexedRequest {
+
+        private final Long id;
+        private final Long requesterId;
+        private final String description;
+        private final LocalDateTime created;
+        private final Set<String> terms;
+        private long sequence;
+
+        private IndexedRequest(Long id, Long requesterId, String description, LocalDateTime created,
+                               Set<String> terms) {
+            this.id = id;
+            this.requesterId = requesterId;
+            this.description = description;
+            this.created = created;
+            this.terms = terms;
+        }
+    }
+
+    private static final class IndexedItem {
+
+        private final Long id;
+        private final Long owner;
+        private final String name;
+        private final Set<String> terms;
+        private long sequence;
+
+        private IndexedItem(Long id, Long owner, String name, Set<String> terms) {
+            this.id = id;
+            this.owner = owner;
+            this.name = name;
+            this.terms = terms;
+        }
+    }
+}
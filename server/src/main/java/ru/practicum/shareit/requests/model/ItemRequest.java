@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import javax.persistence.*;
+import java.time.LocalDateTime;
 
 @Data
 @Builder
@@ -22,4 +23,6 @@ public class ItemRequest {
     private String description;
     @Column(name = "requester_id")
     private Long requesterId;
+    @Column(name = "created")
+    private LocalDateTime created;
 }
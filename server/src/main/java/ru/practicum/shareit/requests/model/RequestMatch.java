@@ -0,0 +1,30 @@
+package ru.practicum.shareit.requests.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+/**
+ * An open request delivered to the inbox of the owner of a matching item.
+ */
+@Data
+@Builder
+@Entity
+@Table(name = "request_matches")
+@NoArgsConstructor
+@AllArgsConstructor
+public class RequestMatch {
+    @Id
+    @Column(name = "id")
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "recipient_id")
+    private Long recipientId;
+    @Column(name = "request_id")
+    private Long requestId;
+    @Column(name = "item_id")
+    private Long itemId;
+}
@@ -1,17 +1,26 @@
 package ru.practicum.shareit.requests.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.requests.model.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
-    List<ItemRequest> findAllByRequesterId(Long requesterId);
+    List<ItemRequest> findAllByRequesterIdOrderByCreatedDescIdDesc(Long requesterId);
 
-    Page<ItemRequest> findAll(Pageable pageable);
+    List<ItemRequest> findFirst1000ByIdGreaterThanOrderByIdAsc(Long requestId);
+
+    List<ItemRequest> findAllByRequesterIdNotOrderByCreatedDescIdDesc(Long requesterId, Pageable pageable);
+
+    @Query("select r from ItemRequest r where r.requesterId <> :requesterId " +
+            "and (r.created < :cursorCreated or (r.created = :cursorCreated and r.id < :cursorId)) " +
+            "order by r.created desc, r.id desc")
+    List<ItemRequest> findAllByRequesterIdNotBefore(Long requesterId, LocalDateTime cursorCreated, Long cursorId,
+                                                    Pageable pageable);
 }
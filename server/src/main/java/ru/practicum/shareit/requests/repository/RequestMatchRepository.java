@@ -0,0 +1,27 @@
+package ru.practicum.shareit.requests.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.requests.dto.RequestMatchDto;
+import ru.practicum.shareit.requests.model.RequestMatch;
+
+import java.util.List;
+
+@Repository
+public interface RequestMatchRepository extends JpaRepository<RequestMatch, Long> {
+
+    @Query("select new ru.practicum.shareit.requests.dto.RequestMatchDto(" +
+            "r.id, r.description, r.created, i.id, i.name) from RequestMatch m, ItemRequest r, Item i " +
+            "where m.requestId = r.id and m.itemId = i.id and m.recipientId = :recipientId order by m.id desc")
+    List<RequestMatchDto> findInbox(Long recipientId, Pageable pageable);
+
+    @Query("select m.id from RequestMatch m where m.recipientId = :recipientId order by m.id desc")
+    List<Long> findAllIdByRecipientId(Long recipientId, Pageable pageable);
+
+    @Modifying
+    @Query("delete from RequestMatch m where m.recipientId = :recipientId and m.id <= :matchId")
+    void deleteAllByRecipientIdUpTo(Long recipientId, Long matchId);
+}
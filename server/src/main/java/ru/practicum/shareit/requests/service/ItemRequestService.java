@@ -1,6 +1,7 @@
 package ru.practicum.shareit.requests.service;
 
 import ru.practicum.shareit.requests.dto.ItemRequestDto;
+import ru.practicum.shareit.requests.dto.RequestMatchDto;
 import ru.practicum.shareit.requests.model.ItemRequest;
 
 import java.util.List;
@@ -13,5 +14,9 @@ public interface ItemRequestService {
 
     List<ItemRequestDto> findAll(Long userId, Integer from, Integer size);
 
+    List<ItemRequestDto> findAllAfter(Long userId, String after, Integer size);
+
+    List<RequestMatchDto> findInbox(Long userId, Integer from, Integer size);
+
     ItemRequestDto findById(Long requestId, Long requesterId);
 }
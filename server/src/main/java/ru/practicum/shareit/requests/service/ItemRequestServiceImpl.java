@@ -3,15 +3,17 @@ package ru.practicum.shareit.requests.service;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.requests.dto.ItemRequestDto;
 import ru.practicum.shareit.requests.dto.ItemRequestMapper;
+import ru.practicum.shareit.requests.dto.RequestMatchDto;
+import ru.practicum.shareit.requests.matching.RequestMatcher;
 import ru.practicum.shareit.requests.model.ItemRequest;
 import ru.practicum.shareit.requests.repository.ItemRequestRepository;
 import ru.practicum.shareit.requests.validation.ItemRequestValidation;
 
-import java.util.Comparator;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -20,49 +22,62 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository itemRequestRepository;
     private final ItemRequestMapper itemRequestMapper;
     private final ItemRequestValidation itemRequestValidation;
+    private final RequestMatcher requestMatcher;
 
     public ItemRequestServiceImpl(ItemRequestRepository itemRequestRepository, ItemRequestMapper itemRequestMapper,
-                                  ItemRequestValidation itemRequestValidation) {
+                                  ItemRequestValidation itemRequestValidation, RequestMatcher requestMatcher) {
         this.itemRequestRepository = itemRequestRepository;
         this.itemRequestMapper = itemRequestMapper;
         this.itemRequestValidation = itemRequestValidation;
+        this.requestMatcher = requestMatcher;
     }
 
     @Override
     public ItemRequestDto add(ItemRequest itemRequest, Long requesterId) {
-        itemRequestValidation.userValidation(requesterId);
+        itemRequestValidation.confirmedUserValidation(requesterId);
         itemRequest.setRequesterId(requesterId);
+        itemRequest.setCreated(LocalDateTime.now().withNano(0));
         log.info("Creating request {} from user №{}", itemRequest, requesterId);
-        return itemRequestMapper.toItemRequestDto(itemRequestRepository.save(itemRequest));
+        final ItemRequest savedRequest = itemRequestRepository.save(itemRequest);
+        requestMatcher.addRequest(savedRequest);
+        return itemRequestMapper.toItemRequestDto(savedRequest);
     }
 
     @Override
     public List<ItemRequestDto> findAllByRequester(Long requesterId) {
         itemRequestValidation.userValidation(requesterId);
         log.info("Get requests for requester №{}", requesterId);
-        return itemRequestRepository.findAllByRequesterId(requesterId)
-                .stream()
-                .map(itemRequestMapper::toItemRequestDto)
-                .collect(Collectors.toList());
+        return itemRequestMapper.toItemRequestDtos(itemRequestRepository
+                .findAllByRequesterIdOrderByCreatedDescIdDesc(requesterId));
     }
 
     @Override
     public List<ItemRequestDto> findAll(Long userId, Integer from, Integer size) {
         log.info("Get requests for user №{}", userId);
-        return itemRequestRepository.findAll(PageRequest.of(from / size, size))
-                .stream()
-                .filter(itemRequest -> !itemRequest.getRequesterId().equals(userId))
-                .map(itemRequestMapper::toItemRequestDto)
-                .sorted(Comparator.comparing(ItemRequestDto::getCreated).reversed())
-                .collect(Collectors.toList());
+        return itemRequestMapper.toItemRequestDtos(itemRequestRepository
+                .findAllByRequesterIdNotOrderByCreatedDescIdDesc(userId, PageRequest.of(from / size, size)));
+    }
+
+    @Override
+    public List<ItemRequestDto> findAllAfter(Long userId, String after, Integer size) {
+        final Cursor cursor = Cursor.decodeWithTime(after);
+        log.info("Get requests for user №{}, after={}, size={}", userId, after, size);
+        return itemRequestMapper.toItemRequestDtos(itemRequestRepository
+                .findAllByRequesterIdNotBefore(userId, cursor.getTime(), cursor.getId(), PageRequest.of(0, size)));
+    }
 
+    @Override
+    public List<RequestMatchDto> findInbox(Long userId, Integer from, Integer size) {
+        itemRequestValidation.userValidation(userId);
+        log.info("Get request matches for user №{}, from={}, size={}", userId, from, size);
+        return requestMatcher.findInbox(userId, from, size);
     }
 
     @Override
     public ItemRequestDto findById(Long requestId, Long requesterId) {
         itemRequestValidation.userValidation(requesterId);
-        itemRequestValidation.requestIdValidation(requestId);
+        ItemRequest itemRequest = itemRequestValidation.requestIdValidation(requestId);
         log.info("Get request №{}", requestId);
-        return itemRequestMapper.toItemRequestDto(itemRequestRepository.findById(requestId).get());
+        return itemRequestMapper.toItemRequestDto(itemRequest);
     }
 }
@@ -2,29 +2,35 @@ package ru.practicum.shareit.requests.validation;
 
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.requests.model.ItemRequest;
 import ru.practicum.shareit.requests.repository.ItemRequestRepository;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.repository.UserExistenceCache;
 
 @Component
 public class ItemRequestValidation {
 
-    private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
     private final ItemRequestRepository itemRequestRepository;
 
-    public ItemRequestValidation(UserRepository userRepository, ItemRequestRepository itemRequestRepository) {
-        this.userRepository = userRepository;
+    public ItemRequestValidation(UserExistenceCache userExistenceCache, ItemRequestRepository itemRequestRepository) {
+        this.userExistenceCache = userExistenceCache;
         this.itemRequestRepository = itemRequestRepository;
     }
 
     public void userValidation(Long requesterId) {
-        if (userRepository.findById(requesterId).isEmpty()) {
+        if (!userExistenceCache.exists(requesterId)) {
             throw new NotFoundException("User not found");
         }
     }
 
-    public void requestIdValidation(Long requestId) {
-        if (itemRequestRepository.findById(requestId).isEmpty()) {
-            throw new NotFoundException("Request not found");
+    public void confirmedUserValidation(Long requesterId) {
+        if (!userExistenceCache.existsConfirmed(requesterId)) {
+            throw new NotFoundException("User not found");
         }
     }
+
+    public ItemRequest requestIdValidation(Long requestId) {
+        return itemRequestRepository.findById(requestId)
+                .orElseThrow(() -> new NotFoundException("Request not found"));
+    }
 }
@@ -1,10 +1,17 @@
 package ru.practicum.shareit.user;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -12,9 +19,11 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final ObjectMapper objectMapper;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, ObjectMapper objectMapper) {
         this.userService = userService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping()
@@ -28,8 +37,28 @@ public class UserController {
     }
 
     @GetMapping()
-    public List<UserDto> findAll() {
-        return userService.findAll();
+    public ResponseEntity<List<UserDto>> findAll(@RequestParam(defaultValue = "0") Integer from,
+                                                 @RequestParam(defaultValue = "10") Integer size,
+                                                 @RequestParam(required = false) String after) {
+        final List<UserDto> users = after != null
+                ? userService.findAllAfter(after, size)
+                : userService.findAll(from, size);
+        return Cursor.withNextCursor(users, size, user -> Cursor.of(user.getId()));
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        final StreamingResponseBody body = outputStream -> userService.streamAll(userDto -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(userDto));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @GetMapping("/{id}")
@@ -0,0 +1,255 @@
+package ru.practicum.shareit.user.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.lang.ref.SoftReference;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Set of the ids of existing users, for checks that only need to know a user exists.
+ *
+ * <p>User ids are dense identity values, so they are kept as bits: ten million users take a little over a
+ * megabyte. An id in the set exists; an id missing from it is confirmed with a lookup and added when found, so the
+ * set only ever errs towards asking the database. Ids above {@value #MAX_CACHED_ID} are always looked up.
+ *
+ * <p>New users are added after commit. A deleted user is removed immediately and again after completion, and a
+ * lookup that overlaps a deletion does not add its result, so a deleted id cannot stay in the set of this node.
+ * Other nodes keep it until their next scheduled rebuild, so writes check with the database through
+ * {@link #existsConfirmed(Long)} instead.
+ *
+ * <p>The bits are held through a soft reference. If the collector clears them under memory pressure, every check
+ * falls back to the database until a scheduled rebuild restores them.
+ */
+@Component
+@Slf4j
+public class UserExistenceCache {
+
+    static final long MAX_CACHED_ID = (1L << 27) - 1;
+    private static final int REBUILD_PAGE_SIZE = 10_000;
+
+    private final UserRepository userRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicLong deletions = new AtomicLong();
+    private final Counter hits;
+    private final Counter confirmed;
+    private final Counter missing;
+    private SoftReference<BitSet> ids = new SoftReference<>(null);
+    private Set<Long> deletedDuringRebuild;
+
+    public UserExistenceCache(UserRepository userRepository, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.hits = checks(meterRegistry, "hit");
+        this.confirmed = checks(meterRegistry, "confirmed");
+        this.missing = checks(meterRegistry, "missing");
+        gauge(meterRegistry, "user.existence.size", null, bits -> bits == null ? 0 : bits.cardinality());
+        gauge(meterRegistry, "user.existence.memory", "bytes", bits -> bits == null ? 0 : bits.size() / 8.0);
+        gauge(meterRegistry, "user.existence.degraded", null, bits -> bits == null ? 1 : 0);
+    }
+
+    @PostConstruct
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            deletedDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        final BitSet rebuilt = new BitSet();
+        List<Long> page = userRepository.findAllIdAfter(0L, PageRequest.of(0, REBUILD_PAGE_SIZE));
+        while (!page.isEmpty()) {
+            page.stream()
+                    .filter(id -> id <= MAX_CACHED_ID)
+                    .forEach(id -> rebuilt.set(id.intValue()));
+            page = page.size() < REBUILD_PAGE_SIZE ? List.of()
+                    : userRepository.findAllIdAfter(page.get(page.size() - 1), PageRequest.of(0, REBUILD_PAGE_SIZE));
+        }
+        lock.writeLock().lock();
+        try {
+            deletedDuringRebuild.stream()
+                    .filter(id -> id <= MAX_CACHED_ID)
+                    .forEach(id -> rebuilt.clear(id.intValue()));
+            deletedDuringRebuild = null;
+            ids = new SoftReference<>(rebuilt);
+            log.info("User existence cache rebuilt for {} users", rebuilt.cardinality());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuilds the set to drop the users deleted on other nodes.
+     */
+    @Scheduled(fixedDelayString = "${shareit.user-existence.refresh-delay:600000}",
+            initialDelayString = "${shareit.user-existence.refresh-delay:600000}")
+    public void refresh() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.user-existence.rebuild-delay:60000}")
+    public void rebuildIfReleased() {
+        if (isReleased()) {
+            log.warn("User existence cache was released under memory pressure, rebuilding");
+            rebuild();
+        }
+    }
+
+    public boolean exists(Long userId) {
+        if (contains(userId)) {
+            hits.increment();
+            return true;
+        }
+        final long deletionsBefore = deletions.get();
+        if (userRepository.findById(userId).isEmpty()) {
+            missing.increment();
+            return false;
+        }
+        confirmed.increment();
+        afterCommit(() -> {
+            if (deletions.get() == deletionsBefore) {
+                set(userId);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Checks with the database, and drops the id from the set if the user is gone.
+     */
+    public boolean existsConfirmed(Long userId) {
+        if (userRepository.findById(userId).isPresent()) {
+            confirmed.increment();
+            return true;
+        }
+        missing.increment();
+        clear(userId);
+        return false;
+    }
+
+    public void add(Long userId) {
+        afterCommit(() -> set(userId));
+    }
+
+    public void remove(Long userId) {
+        clear(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    clear(userId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Drops the bits the way the collector does under memory pressure.
+     */
+    void release() {
+        lock.writeLock().lock();
+        try {
+            ids.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+
+    private void set(Long userId) {
+        if (userId > MAX_CACHED_ID) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            final BitSet bits = ids.get();
+            if (bits != null) {
+                bits.set(userId.intValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void clear(Long userId) {
+        lock.writeLock().lock();
+        try {
+            deletions.incrementAndGet();
+            if (deletedDuringRebuild != null) {
+                deletedDuringRebuild.add(userId);
+            }
+            final BitSet bits = ids.get();
+            if (bits != null && userId <= MAX_CACHED_ID) {
+                bits.clear(userId.intValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean contains(Long userId) {
+        lock.readLock().lock();
+        try {
+            final BitSet bits = ids.get();
+            return bits != null && userId <= MAX_CACHED_ID && bits.get(userId.intValue());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean isReleased() {
+        lock.readLock().lock();
+        try {
+            return ids.get() == null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private double read(ToDoubleFunction<BitSet> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.applyAsDouble(ids.get());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Counter checks(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("user.existence.checks")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private void gauge(MeterRegistry meterRegistry, String name, String baseUnit, ToDoubleFunction<BitSet> reader) {
+        Gauge.builder(name, this, cache -> cache.read(reader))
+                .baseUnit(baseUnit)
+                .register(meterRegistry);
+    }
+}
@@ -1,9 +1,35 @@
 package ru.practicum.shareit.user.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
+import javax.persistence.QueryHint;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    List<User> findAllByOrderByIdAsc(Pageable pageable);
+
+    List<User> findAllByIdGreaterThanOrderByIdAsc(Long userId, Pageable pageable);
+
+    @Query("select u.id from User u where u.id > :userId order by u.id")
+    List<Long> findAllIdAfter(Long userId, Pageable pageable);
+
+    /**
+     * Reads all users through a forward-only cursor, {@code 500} rows per round trip. The rows are mapped
+     * straight to DTOs, so nothing accumulates in the persistence context. Must be consumed and closed
+     * inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select new ru.practicum.shareit.user.dto.UserDto(u.id, u.name, u.email) from User u order by u.id")
+    Stream<UserDto> streamAll();
 }
@@ -4,13 +4,18 @@ import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
     UserDto add(User user);
 
     UserDto update(User user, Long id);
 
-    List<UserDto> findAll();
+    List<UserDto> findAll(Integer from, Integer size);
+
+    List<UserDto> findAllAfter(String after, Integer size);
+
+    void streamAll(Consumer<UserDto> consumer);
 
     UserDto findById(Long id);
 
@@ -1,16 +1,22 @@
 package ru.practicum.shareit.user.service;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
+import ru.practicum.shareit.user.repository.UserExistenceCache;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.validation.UserValidation;
 
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
@@ -19,21 +25,25 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final UserValidation userValidation;
+    private final UserExistenceCache userExistenceCache;
 
-    public UserServiceImpl(UserRepository userRepository, UserMapper userMapper, UserValidation userValidation) {
+    public UserServiceImpl(UserRepository userRepository, UserMapper userMapper, UserValidation userValidation,
+                           UserExistenceCache userExistenceCache) {
         this.userRepository = userRepository;
         this.userMapper = userMapper;
         this.userValidation = userValidation;
+        this.userExistenceCache = userExistenceCache;
     }
 
     public UserDto add(User user) {
         log.info("Creating user {}", user);
-        return userMapper.toUserDto(userRepository.save(user));
+        final User savedUser = userRepository.save(user);
+        userExistenceCache.add(savedUser.getId());
+        return userMapper.toUserDto(savedUser);
     }
 
     public UserDto update(User user, Long id) {
-        userValidation.idValidation(id);
-        User oldUser = userRepository.findById(id).get();
+        User oldUser = userValidation.idValidation(id);
         User updatedUser = new User();
         updatedUser.setId(id);
         if ((user.getName() == null && user.getEmail() == null)) {
@@ -54,20 +64,41 @@ public class UserServiceImpl implements UserService {
         return userMapper.toUserDto(updatedUser);
     }
 
-    public List<UserDto> findAll() {
-        log.info("Get all users");
-        return userRepository.findAll().stream().map(userMapper::toUserDto).collect(Collectors.toList());
+    public List<UserDto> findAll(Integer from, Integer size) {
+        log.info("Get users, from={}, size={}", from, size);
+        return userRepository.findAllByOrderByIdAsc(PageRequest.of(from / size, size))
+                .stream()
+                .map(userMapper::toUserDto)
+                .collect(Collectors.toList());
+    }
+
+    public List<UserDto> findAllAfter(String after, Integer size) {
+        final Cursor cursor = Cursor.decode(after);
+        log.info("Get users, after={}, size={}", after, size);
+        return userRepository.findAllByIdGreaterThanOrderByIdAsc(cursor.getId(), PageRequest.of(0, size))
+                .stream()
+                .map(userMapper::toUserDto)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<UserDto> consumer) {
+        log.info("Stream all users");
+        try (Stream<UserDto> users = userRepository.streamAll()) {
+            users.forEach(consumer);
+        }
     }
 
     public UserDto findById(Long id) {
-        userValidation.idValidation(id);
+        User user = userValidation.idValidation(id);
         log.info("Get user №{}", id);
-        return userMapper.toUserDto(userRepository.findById(id).get());
+        return userMapper.toUserDto(user);
     }
 
     public void delete(Long id) {
         userValidation.idValidation(id);
         userRepository.deleteById(id);
+        userExistenceCache.remove(id);
         log.info("Delete user №{}", id);
     }
 }
@@ -2,6 +2,7 @@ package ru.practicum.shareit.user.validation;
 
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 @Component
@@ -13,9 +14,8 @@ public class UserValidation {
         this.userRepository = userRepository;
     }
 
-    public void idValidation(Long id) {
-        if (userRepository.findById(id).isEmpty()) {
-            throw new NotFoundException("User not found");
-        }
+    public User idValidation(Long id) {
+        return userRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("User not found"));
     }
 }
\ No newline at end of file
@@ -10,9 +10,12 @@ CREATE TABLE IF NOT EXISTS requests
 (
     id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
     description  VARCHAR,
-    requester_id BIGINT REFERENCES users (id)
+    requester_id BIGINT REFERENCES users (id),
+    created      TIMESTAMP WITHOUT TIME ZONE                         NOT NULL
 );
 
+ALTER TABLE requests ADD COLUMN IF NOT EXISTS created TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
 CREATE TABLE IF NOT EXISTS items
 (
     id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
@@ -33,6 +36,23 @@ CREATE TABLE IF NOT EXISTS bookings
     status     VARCHAR(10)
 );
 
+CREATE TABLE IF NOT EXISTS item_booking_pointers
+(
+    item_id         BIGINT REFERENCES items (id) PRIMARY KEY,
+    last_booking_id BIGINT REFERENCES bookings (id),
+    next_booking_id BIGINT REFERENCES bookings (id),
+    next_start      TIMESTAMP WITHOUT TIME ZONE,
+    valid_until     TIMESTAMP WITHOUT TIME ZONE
+);
+
+CREATE TABLE IF NOT EXISTS request_matches
+(
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
+    recipient_id BIGINT REFERENCES users (id)                        NOT NULL,
+    request_id   BIGINT REFERENCES requests (id)                     NOT NULL,
+    item_id      BIGINT REFERENCES items (id)                        NOT NULL
+);
+
 CREATE TABLE IF NOT EXISTS comments
 (
     id        BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
@@ -41,3 +61,17 @@ CREATE TABLE IF NOT EXISTS comments
     author_id BIGINT REFERENCES users (id)
 );
 
+
+CREATE INDEX IF NOT EXISTS idx_requests_created_id ON requests (created DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id);
+
+CREATE INDEX IF NOT EXISTS idx_request_matches_recipient ON request_matches (recipient_id, id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start_date);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_end ON bookings (item_id, end_date);
+
+CREATE INDEX IF NOT EXISTS idx_item_booking_pointers_valid_until ON item_booking_pointers (valid_until);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status_start ON bookings (booker_id, status, start_date);
@@ -8,9 +8,12 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingApprovalResult;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
@@ -23,6 +26,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -142,4 +146,58 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[0].booker.id", is(bookingDto.getBooker().getId())))
                 .andExpect(jsonPath("$[0].item.id", is(bookingDto.getItem().getId())));
     }
+
+    @Test
+    void testFindAllByBookerAfter() throws Exception {
+        bookingDtos.add(bookingDto);
+        when(bookingService.findAllByBookerAfter(any(), any(), any(), any()))
+                .thenReturn(bookingDtos);
+
+        mockMvc.perform(get("/bookings")
+                        .param("after", Cursor.of(bookingDtoApproved.getStart(), bookingDtoApproved.getId()).encode())
+                        .param("size", "1")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string(Cursor.HEADER,
+                        Cursor.of(bookingDto.getStart(), bookingDto.getId()).encode()))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(bookingDto.getId()), Long.class));
+    }
+
+    @Test
+    void testCreateAll() throws Exception {
+        when(bookingService.createAll(any(), any()))
+                .thenReturn(List.of(
+                        BookingBatchResult.builder().index(0).booking(bookingDto).build(),
+                        BookingBatchResult.builder().index(1).error("Item not found").build()));
+
+        mockMvc.perform(post("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1L)
+                        .content(mapper.writeValueAsString(List.of(bookingDto, bookingDto)))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].booking.id", is(bookingDto.getId()), Long.class))
+                .andExpect(jsonPath("$[1].index", is(1)))
+                .andExpect(jsonPath("$[1].error", is("Item not found")));
+    }
+
+    @Test
+    void testApproveAll() throws Exception {
+        when(bookingService.approveAll(any(), anyBoolean(), any()))
+                .thenReturn(List.of(
+                        BookingApprovalResult.builder().bookingId(1L).status(BookingStatus.APPROVED).build(),
+                        BookingApprovalResult.builder().bookingId(2L).error("Booking not found").build()));
+
+        mockMvc.perform(patch("/bookings/approve")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("approved", "true")
+                        .content(mapper.writeValueAsString(List.of(1L, 2L)))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].status", is(BookingStatus.APPROVED.name())))
+                .andExpect(jsonPath("$[1].bookingId", is(2)))
+                .andExpect(jsonPath("$[1].error", is("Booking not found")));
+    }
 }
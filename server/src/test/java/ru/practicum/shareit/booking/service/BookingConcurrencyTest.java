@@ -0,0 +1,282 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext
+class BookingConcurrencyTest {
+
+    private static final int CONTENDED_BOOKINGS = 200;
+    private static final int FREE_BOOKINGS = 100;
+    private static final int RACED_BOOKINGS = 50;
+    private static final int FREE_ITEMS = 10;
+    private static final int SLOWDOWN_FACTOR = 4;
+    private static final long SLOWDOWN_SLACK_MILLIS = 250;
+
+    private final ItemService itemService;
+    private final UserService userService;
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+
+    @Test
+    void testConcurrentApprovalsNeverOverlap() throws InterruptedException {
+        Long ownerId = userService.add(User.builder().name("owner").email("owner@concurrency.ru").build()).getId();
+        Long bookerId = userService.add(User.builder().name("booker").email("booker@concurrency.ru").build()).getId();
+        Long contendedItemId = itemService
+                .add(ItemDto.builder().name("name").description("description").available(true).build(), ownerId)
+                .getId();
+        Long freeItemId = itemService
+                .add(ItemDto.builder().name("name").description("description").available(true).build(), ownerId)
+                .getId();
+        LocalDateTime start = LocalDateTime.now().withNano(0).plusDays(1L);
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < CONTENDED_BOOKINGS; i++) {
+            bookingIds.add(bookingService.create(Booking.builder()
+                    .start(start.plusMinutes(i % 10))
+                    .end(start.plusHours(1L))
+                    .itemId(contendedItemId)
+                    .build(), bookerId).getId());
+        }
+        for (int i = 0; i < FREE_BOOKINGS; i++) {
+            bookingIds.add(bookingService.create(Booking.builder()
+                    .start(start.plusDays(i))
+                    .end(start.plusDays(i).plusHours(1L))
+                    .itemId(freeItemId)
+                    .build(), bookerId).getId());
+        }
+        Collections.shuffle(bookingIds);
+
+        AtomicInteger approved = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        for (Long bookingId : bookingIds) {
+            executor.submit(() -> {
+                try {
+                    bookingService.approve(bookingId, true, ownerId);
+                    approved.incrementAndGet();
+                } catch (ValidationException e) {
+                    conflicts.incrementAndGet();
+                } catch (RuntimeException e) {
+                    failures.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+
+        assertThat(executor.awaitTermination(60, TimeUnit.SECONDS), equalTo(true));
+        assertThat(failures.get(), equalTo(0));
+        assertThat(approved.get(), equalTo(FREE_BOOKINGS + 1));
+        assertThat(conflicts.get(), equalTo(CONTENDED_BOOKINGS - 1));
+        List<Booking> contendedApproved = bookingRepository.findAll()
+                .stream()
+                .filter(booking -> booking.getItemId().equals(contendedItemId))
+                .filter(booking -> booking.getStatus() == BookingStatus.APPROVED)
+                .collect(Collectors.toList());
+        assertThat(contendedApproved.size(), equalTo(1));
+    }
+
+    @Test
+    void testHotItemDoesNotSlowDownApprovalsOfOtherItems() throws InterruptedException {
+        Long ownerId = userService.add(User.builder().name("owner").email("owner@hot.ru").build()).getId();
+        Long bookerId = userService.add(User.builder().name("booker").email("booker@hot.ru").build()).getId();
+        Long hotItemId = itemService
+                .add(ItemDto.builder().name("name").description("description").available(true).build(), ownerId)
+                .getId();
+        List<Long> freeItemIds = new ArrayList<>();
+        for (int i = 0; i < FREE_ITEMS; i++) {
+            freeItemIds.add(itemService
+                    .add(ItemDto.builder().name("name").description("description").available(true).build(), ownerId)
+                    .getId());
+        }
+        LocalDateTime start = LocalDateTime.now().withNano(0).plusDays(1L);
+        List<Long> warmUpIds = createFreeBookings(freeItemIds, bookerId, start);
+        List<Long> baselineIds = createFreeBookings(freeItemIds, bookerId, start.plusYears(1L));
+        List<Long> measuredIds = createFreeBookings(freeItemIds, bookerId, start.plusYears(2L));
+        List<Long> hotIds = new ArrayList<>();
+        for (int i = 0; i < CONTENDED_BOOKINGS; i++) {
+            hotIds.add(bookingService.create(Booking.builder()
+                    .start(start.plusMinutes(i % 10))
+                    .end(start.plusHours(1L))
+                    .itemId(hotItemId)
+                    .build(), bookerId).getId());
+        }
+
+        approveConcurrently(warmUpIds, ownerId);
+        long baselineMillis = approveConcurrently(baselineIds, ownerId);
+        ExecutorService hotExecutor = Executors.newFixedThreadPool(8);
+        hotIds.forEach(bookingId -> hotExecutor.submit(() -> approveIgnoringConflicts(bookingId, ownerId)));
+        hotExecutor.shutdown();
+        long measuredMillis = approveConcurrently(measuredIds, ownerId);
+
+        assertThat(hotExecutor.awaitTermination(60, TimeUnit.SECONDS), equalTo(true));
+        assertThat(measuredMillis, lessThan(baselineMillis * SLOWDOWN_FACTOR + SLOWDOWN_SLACK_MILLIS));
+        assertThat(bookingRepository.findAllById(measuredIds)
+                .stream()
+                .allMatch(booking -> booking.getStatus() == BookingStatus.APPROVED), equalTo(true));
+    }
+
+    @Test
+    void testConcurrentApproveAndRejectDecideOnce() throws InterruptedException {
+        Long ownerId = userService.add(User.builder().name("owner").email("owner@race.ru").build()).getId();
+        Long bookerId = userService.add(User.builder().name("booker").email("booker@race.ru").build()).getId();
+        Long itemId = itemService
+                .add(ItemDto.builder().name("name").description("description").available(true).build(), ownerId)
+                .getId();
+        LocalDateTime start = LocalDateTime.now().withNano(0).plusDays(1L);
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < RACED_BOOKINGS; i++) {
+            bookingIds.add(bookingService.create(Booking.builder()
+                    .start(start.plusDays(i))
+                    .end(start.plusDays(i).plusHours(1L))
+                    .itemId(itemId)
+                    .build(), bookerId).getId());
+        }
+
+        Map<Long, List<Boolean>> decisions = new ConcurrentHashMap<>();
+        AtomicInteger failures = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        for (Long bookingId : bookingIds) {
+            for (boolean approved : new boolean[]{true, false, true}) {
+                executor.submit(() -> {
+                    try {
+                        bookingService.approve(bookingId, approved, ownerId);
+                        decisions.computeIfAbsent(bookingId, id -> new CopyOnWriteArrayList<>()).add(approved);
+                    } catch (ValidationException e) {
+                        decisions.computeIfAbsent(bookingId, id -> new CopyOnWriteArrayList<>());
+                    } catch (RuntimeException e) {
+                        failures.incrementAndGet();
+                    }
+                });
+            }
+        }
+        executor.shutdown();
+
+        assertThat(executor.awaitTermination(60, TimeUnit.SECONDS), equalTo(true));
+        assertThat(failures.get(), equalTo(0));
+        for (Booking booking : bookingRepository.findAllById(bookingIds)) {
+            List<Boolean> successful = decisions.get(booking.getId());
+            assertThat(successful.size(), equalTo(1));
+            assertThat(booking.getStatus(), equalTo(successful.get(0) ? BookingStatus.APPROVED
+                    : BookingStatus.REJECTED));
+        }
+    }
+
+    @Test
+    void testConcurrentApproveAllAndApproveDecideOnce() throws InterruptedException {
+        Long ownerId = userService.add(User.builder().name("owner").email("owner@batch.ru").build()).getId();
+        Long bookerId = userService.add(User.builder().name("booker").email("booker@batch.ru").build()).getId();
+        Long itemId = itemService
+                .add(ItemDto.builder().name("name").description("description").available(true).build(), ownerId)
+                .getId();
+        LocalDateTime start = LocalDateTime.now().withNano(0).plusDays(1L);
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < RACED_BOOKINGS; i++) {
+            bookingIds.add(bookingService.create(Booking.builder()
+                    .start(start.plusDays(i))
+                    .end(start.plusDays(i).plusHours(1L))
+                    .itemId(itemId)
+                    .build(), bookerId).getId());
+        }
+
+        Map<Long, List<Boolean>> decisions = new ConcurrentHashMap<>();
+        bookingIds.forEach(bookingId -> decisions.put(bookingId, new CopyOnWriteArrayList<>()));
+        AtomicInteger failures = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        executor.submit(() -> {
+            try {
+                bookingService.approveAll(bookingIds, false, ownerId).stream()
+                        .filter(result -> result.getError() == null)
+                        .forEach(result -> decisions.get(result.getBookingId()).add(false));
+            } catch (RuntimeException e) {
+                failures.incrementAndGet();
+            }
+        });
+        for (Long bookingId : bookingIds) {
+            executor.submit(() -> {
+                try {
+                    bookingService.approve(bookingId, true, ownerId);
+                    decisions.get(bookingId).add(true);
+                } catch (ValidationException e) {
+                    // Already decided by the batch.
+                } catch (RuntimeException e) {
+                    failures.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+
+        assertThat(executor.awaitTermination(60, TimeUnit.SECONDS), equalTo(true));
+        assertThat(failures.get(), equalTo(0));
+        for (Booking booking : bookingRepository.findAllById(bookingIds)) {
+            List<Boolean> successful = decisions.get(booking.getId());
+            assertThat(successful.size(), equalTo(1));
+            assertThat(booking.getStatus(), equalTo(successful.get(0) ? BookingStatus.APPROVED
+                    : BookingStatus.REJECTED));
+        }
+    }
+
+    private List<Long> createFreeBookings(List<Long> itemIds, Long bookerId, LocalDateTime start) {
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < FREE_BOOKINGS; i++) {
+            bookingIds.add(bookingService.create(Booking.builder()
+                    .start(start.plusDays(i))
+                    .end(start.plusDays(i).plusHours(1L))
+                    .itemId(itemIds.get(i % itemIds.size()))
+                    .build(), bookerId).getId());
+        }
+        return bookingIds;
+    }
+
+    /**
+     * Approves the bookings from 8 threads and returns the wall-clock time it took in milliseconds.
+     */
+    private long approveConcurrently(List<Long> bookingIds, Long ownerId) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        long startNanos = System.nanoTime();
+        bookingIds.forEach(bookingId -> executor.submit(() -> approveIgnoringConflicts(bookingId, ownerId)));
+        executor.shutdown();
+        assertThat(executor.awaitTermination(60, TimeUnit.SECONDS), equalTo(true));
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    private void approveIgnoringConflicts(Long bookingId, Long ownerId) {
+        try {
+            bookingService.approve(bookingId, true, ownerId);
+        } catch (ValidationException e) {
+            // Expected for all but one of the overlapping bookings of the hot item.
+        }
+    }
+}
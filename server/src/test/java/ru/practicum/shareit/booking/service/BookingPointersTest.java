@@ -0,0 +1,216 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.ItemBookingPointers;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingPointersRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingPointersTest {
+
+    private ItemBookingPointersRepository pointersRepository;
+    private BookingRepository bookingRepository;
+    private ItemRepository itemRepository;
+    private BookingPointers bookingPointers;
+    private final LocalDateTime presentTime = LocalDateTime.now().withNano(0);
+    private final Booking last = booking(1L, presentTime.minusDays(2L), presentTime.minusDays(1L));
+    private final Booking next = booking(2L, presentTime.plusDays(2L), presentTime.plusDays(3L));
+
+    @BeforeEach
+    void beforeEach() {
+        pointersRepository = mock(ItemBookingPointersRepository.class);
+        bookingRepository = mock(BookingRepository.class);
+        itemRepository = mock(ItemRepository.class);
+        bookingPointers = new BookingPointers(pointersRepository, bookingRepository, itemRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+    }
+
+    @Test
+    void testAddMovesNextBooking() {
+        ItemBookingPointers pointers = pointers(presentTime.plusDays(2L));
+        when(pointersRepository.findAllById(any()))
+                .thenReturn(List.of(pointers));
+
+        bookingPointers.add(booking(3L, presentTime.plusDays(1L), presentTime.plusDays(4L)), presentTime);
+
+        assertEquals(1L, pointers.getLastBookingId());
+        assertEquals(3L, pointers.getNextBookingId());
+        assertEquals(presentTime.plusDays(1L), pointers.getNextStart());
+        assertEquals(presentTime.plusDays(1L), pointers.getValidUntil());
+        verify(itemRepository, never()).findAllByIdForUpdate(any());
+        verify(bookingRepository, never()).findFirstByItemIdAndStartAfterOrderByStartAsc(any(), any());
+    }
+
+    @Test
+    void testAddCreatesMissingPointersWithoutRecomputing() {
+        bookingPointers.add(next, presentTime);
+
+        ArgumentCaptor<Iterable<ItemBookingPointers>> saved = ArgumentCaptor.forClass(Iterable.class);
+        verify(pointersRepository).saveAll(saved.capture());
+        final ItemBookingPointers created = saved.getValue().iterator().next();
+        assertEquals(ItemBookingPointers.builder()
+                .itemId(1L)
+                .nextBookingId(2L)
+                .nextStart(next.getStart())
+                .validUntil(next.getStart())
+                .build(), created);
+        assertTrue(created.isNew());
+        verify(bookingRepository, never()).findFirstByItemIdAndEndBeforeOrderByEndDesc(any(), any());
+    }
+
+    @Test
+    void testAddKeepsEarlierNextBooking() {
+        ItemBookingPointers pointers = pointers(presentTime.plusDays(2L));
+        when(pointersRepository.findAllById(any()))
+                .thenReturn(List.of(pointers));
+
+        bookingPointers.add(booking(3L, presentTime.plusDays(5L), presentTime.plusDays(6L)), presentTime);
+
+        assertEquals(2L, pointers.getNextBookingId());
+        assertEquals(presentTime.plusDays(2L), pointers.getValidUntil());
+    }
+
+    @Test
+    void testAddRecomputesExpiredPointers() {
+        when(pointersRepository.findAllById(any()))
+                .thenReturn(List.of(pointers(presentTime)));
+        when(bookingRepository.findFirstByItemIdAndEndBeforeOrderByEndDesc(eq(1L), any()))
+                .thenReturn(Optional.of(last));
+        when(bookingRepository.findFirstByItemIdAndStartAfterOrderByStartAsc(eq(1L), any()))
+                .thenReturn(Optional.of(next));
+        when(bookingRepository.findFirstByItemIdAndEndGreaterThanEqualOrderByEndAsc(eq(1L), any()))
+                .thenReturn(Optional.of(booking(4L, presentTime.minusHours(1L), presentTime.plusHours(1L))));
+
+        bookingPointers.add(next, presentTime);
+
+        ArgumentCaptor<ItemBookingPointers> saved = ArgumentCaptor.forClass(ItemBookingPointers.class);
+        verify(pointersRepository).save(saved.capture());
+        assertEquals(ItemBookingPointers.builder()
+                .itemId(1L)
+                .lastBookingId(1L)
+                .nextBookingId(2L)
+                .nextStart(next.getStart())
+                .validUntil(presentTime.plusHours(1L))
+                .build(), saved.getValue());
+    }
+
+    @Test
+    void testFindAll() {
+        when(pointersRepository.findAllById(any()))
+                .thenReturn(List.of(pointers(presentTime.plusDays(2L))));
+        when(bookingRepository.findAllById(any()))
+                .thenReturn(List.of(last, next));
+
+        Map<Long, BookingPointers.LastAndNext> result = bookingPointers.findAll(List.of(1L, 2L), presentTime);
+
+        assertEquals(Map.of(1L, new BookingPointers.LastAndNext(last, next)), result);
+        verify(bookingRepository, never()).findFirstByItemIdAndStartAfterOrderByStartAsc(any(), any());
+    }
+
+    @Test
+    void testFindAllAnswersExpiredPointersFromBookings() {
+        when(pointersRepository.findAllById(any()))
+                .thenReturn(List.of(pointers(presentTime.minusHours(1L))));
+        when(bookingRepository.findAllLastByItemIdIn(eq(List.of(1L)), any()))
+                .thenReturn(List.of(last, booking(3L, last.getStart(), last.getEnd())));
+        when(bookingRepository.findAllNextByItemIdIn(eq(List.of(1L)), any()))
+                .thenReturn(List.of(next));
+
+        Map<Long, BookingPointers.LastAndNext> result = bookingPointers.findAll(List.of(1L), presentTime);
+
+        assertEquals(Map.of(1L, new BookingPointers.LastAndNext(last, next)), result);
+        verify(bookingRepository, never()).findAllById(any());
+        verify(bookingRepository, never()).findFirstByItemIdAndEndBeforeOrderByEndDesc(any(), any());
+    }
+
+    @Test
+    void testRollForward() {
+        when(pointersRepository.findAllItemIdExpiredAt(any()))
+                .thenReturn(List.of(1L));
+
+        bookingPointers.rollForward();
+
+        verify(itemRepository).findByIdForUpdate(1L);
+        verify(pointersRepository).save(any());
+        verify(pointersRepository, never()).findAllItemIdWithoutPointers();
+    }
+
+    @Test
+    void testWarmUpCreatesPointersOfItemsWithout() {
+        when(pointersRepository.findAllItemIdWithoutPointers())
+                .thenReturn(List.of(1L));
+        when(pointersRepository.findAllItemIdExpiredAt(any()))
+                .thenReturn(List.of(2L));
+
+        bookingPointers.warmUp();
+
+        verify(itemRepository).findByIdForUpdate(1L);
+        verify(itemRepository).findByIdForUpdate(2L);
+        ArgumentCaptor<ItemBookingPointers> saved = ArgumentCaptor.forClass(ItemBookingPointers.class);
+        verify(pointersRepository, times(2)).save(saved.capture());
+        assertEquals(List.of(1L, 2L), List.of(saved.getAllValues().get(0).getItemId(),
+                saved.getAllValues().get(1).getItemId()));
+        assertNull(saved.getValue().getValidUntil());
+    }
+
+    @Test
+    void testFindInconsistentItems() {
+        when(pointersRepository.findAllById(any()))
+                .thenReturn(List.of(pointers(presentTime.plusDays(2L))));
+        when(bookingRepository.findAllById(any()))
+                .thenReturn(List.of(last, next));
+        when(bookingRepository.findFirstByItemIdAndEndBeforeOrderByEndDesc(any(), any()))
+                .thenReturn(Optional.empty());
+        when(bookingRepository.findFirstByItemIdAndStartAfterOrderByStartAsc(any(), any()))
+                .thenReturn(Optional.empty());
+        when(bookingRepository.findFirstByItemIdAndEndBeforeOrderByEndDesc(eq(1L), any()))
+                .thenReturn(Optional.of(last));
+        when(bookingRepository.findFirstByItemIdAndStartAfterOrderByStartAsc(eq(1L), any()))
+                .thenReturn(Optional.of(next));
+        when(bookingRepository.findFirstByItemIdAndStartAfterOrderByStartAsc(eq(2L), any()))
+                .thenReturn(Optional.of(next));
+
+        assertEquals(List.of(2L), bookingPointers.findInconsistentItems(List.of(1L, 2L, 3L), presentTime));
+    }
+
+    private ItemBookingPointers pointers(LocalDateTime validUntil) {
+        return ItemBookingPointers.builder()
+                .itemId(1L)
+                .lastBookingId(last.getId())
+                .nextBookingId(next.getId())
+                .nextStart(next.getStart())
+                .validUntil(validUntil)
+                .build();
+    }
+
+    private Booking booking(Long id, LocalDateTime start, LocalDateTime end) {
+        return Booking.builder()
+                .id(id)
+                .start(start)
+                .end(end)
+                .itemId(1L)
+                .bookerId(2L)
+                .status(BookingStatus.WAITING)
+                .build();
+    }
+}
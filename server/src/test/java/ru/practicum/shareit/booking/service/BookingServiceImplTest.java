@@ -1,14 +1,20 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingApprovalResult;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
@@ -23,11 +29,14 @@ import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 
 @Transactional
 @SpringBootTest(
-        properties = "db.name=test",
+        properties = {"db.name=test", "spring.jpa.properties.hibernate.generate_statistics=true",
+                "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"},
         webEnvironment = SpringBootTest.WebEnvironment.NONE)
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
@@ -218,4 +227,285 @@ class BookingServiceImplTest {
         assertThat(result.get(0).getBookerId(), equalTo(user2Id));
         assertThat(result.get(0).getStatus(), equalTo(BookingStatus.APPROVED));
     }
+
+    @Test
+    void testFindAllByOwnerReturnsFullPageOfOwnItems() {
+        Long owner1Id = userService.add(User.builder().name("owner1").email("email23@email.ru").build()).getId();
+        Long owner2Id = userService.add(User.builder().name("owner2").email("email24@email.ru").build()).getId();
+        Long bookerId = userService.add(User.builder().name("booker").email("email25@email.ru").build()).getId();
+        Long item1Id = itemService
+                .add(ItemDto.builder().name("name").description("description").available(true).build(), owner1Id)
+                .getId();
+        Long item2Id = itemService
+                .add(ItemDto.builder().name("name").description("description").available(true).build(), owner2Id)
+                .getId();
+        List<Long> owner1BookingIds = new ArrayList<>();
+        for (long i = 1; i <= 3; i++) {
+            owner1BookingIds.add(bookingService.create(Booking
+                    .builder()
+                    .start(LocalDateTime.now().withNano(0).plusDays(i))
+                    .end(LocalDateTime.now().withNano(0).plusDays(i).plusHours(1L))
+                    .itemId(item1Id)
+                    .build(), bookerId).getId());
+            bookingService.create(Booking
+                    .builder()
+                    .start(LocalDateTime.now().withNano(0).plusDays(i).plusMinutes(1L))
+                    .end(LocalDateTime.now().withNano(0).plusDays(i).plusHours(1L))
+                    .itemId(item2Id)
+                    .build(), bookerId);
+        }
+
+        List<BookingDto> result = bookingService.findAllByOwner(owner1Id, "ALL", 0, 2);
+
+        assertThat(result.size(), equalTo(2));
+        assertThat(result.get(0).getId(), equalTo(owner1BookingIds.get(2)));
+        assertThat(result.get(1).getId(), equalTo(owner1BookingIds.get(1)));
+        assertThat(bookingService.findAllByOwner(owner1Id, "FUTURE", 2, 2).size(), equalTo(1));
+        assertThat(bookingService.findAllByOwner(owner1Id, "WAITING", 0, 10).size(), equalTo(3));
+    }
+
+    @Test
+    void testFindAllByBookerAfterWalksPagesLikeOffset() {
+        Long ownerId = userService.add(User.builder().name("owner").email("email26@email.ru").build()).getId();
+        Long bookerId = userService.add(User.builder().name("booker").email("email27@email.ru").build()).getId();
+        Long itemId = itemService
+                .add(ItemDto.builder().name("name").description("description").available(true).build(), ownerId)
+                .getId();
+        LocalDateTime start = LocalDateTime.now().withNano(0).plusDays(1L);
+        for (long i = 0; i < 5; i++) {
+            bookingService.create(Booking
+                    .builder()
+                    .start(start.plusDays(i % 3))
+                    .end(start.plusDays(i % 3).plusHours(1L))
+                    .itemId(itemId)
+                    .build(), bookerId);
+        }
+
+        List<BookingDto> firstPage = bookingService.findAllByBooker(bookerId, "FUTURE", 0, 2);
+        String after = Cursor.of(firstPage.get(1).getStart(), firstPage.get(1).getId()).encode();
+        List<BookingDto> secondPage = bookingService.findAllByBookerAfter(bookerId, "FUTURE", after, 2);
+        after = Cursor.of(secondPage.get(1).getStart(), secondPage.get(1).getId()).encode();
+        List<BookingDto> thirdPage = bookingService.findAllByBookerAfter(bookerId, "FUTURE", after, 2);
+
+        assertThat(secondPage, equalTo(bookingService.findAllByBooker(bookerId, "FUTURE", 2, 2)));
+        assertThat(thirdPage, equalTo(bookingService.findAllByBooker(bookerId, "FUTURE", 4, 2)));
+        assertThat(thirdPage.size(), equalTo(1));
+        assertThat(bookingService.findAllByOwnerAfter(ownerId, "WAITING", after, 2), equalTo(thirdPage));
+    }
+
+    @Test
+    void testFindAllByBookerWithStatusReturnsFullPage() {
+        Long ownerId = userService.add(User.builder().name("owner").email("email28@email.ru").build()).getId();
+        Long bookerId = userService.add(User.builder().name("booker").email("email29@email.ru").build()).getId();
+        Long itemId = itemService
+                .add(ItemDto.builder().name("name").description("description").available(true).build(), ownerId)
+                .getId();
+        for (long i = 1; i <= 6; i++) {
+            Long bookingId = bookingService.create(Booking
+                    .builder()
+                    .start(LocalDateTime.now().withNano(0).plusDays(i))
+                    .end(LocalDateTime.now().withNano(0).plusDays(i).plusHours(1L))
+                    .itemId(itemId)
+                    .build(), bookerId).getId();
+            if (i % 3 != 0) {
+                bookingService.approve(bookingId, false, ownerId);
+            }
+        }
+
+        List<BookingDto> rejected = bookingService.findAllByBooker(bookerId, "REJECTED", 0, 3);
+        List<BookingDto> waiting = bookingService.findAllByBooker(bookerId, "WAITING", 0, 3);
+
+        assertThat(rejected.size(), equalTo(3));
+        assertThat(rejected.stream().allMatch(booking -> booking.getStatus() == BookingStatus.REJECTED),
+                equalTo(true));
+        assertThat(waiting.size(), equalTo(2));
+        assertThat(bookingService.findAllByOwner(ownerId, "REJECTED", 3, 3).size(), equalTo(1));
+    }
+
+    @Test
+    void testFindAllByOwnerQueryCountDoesNotDependOnPageSize() {
+        Long ownerId = userService.add(User.builder().name("owner").email("email30@email.ru").build()).getId();
+        List<Long> itemIds = new ArrayList<>();
+        List<Long> bookerIds = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            itemIds.add(itemService
+                    .add(ItemDto.builder().name("name").description("description").available(true).build(), ownerId)
+                    .getId());
+            bookerIds.add(userService
+                    .add(User.builder().name("booker").email("booker" + i + "@email.ru").build()).getId());
+        }
+        for (long i = 0; i < 12; i++) {
+            bookingService.create(Booking
+                    .builder()
+                    .start(LocalDateTime.now().withNano(0).plusDays(i + 1))
+                    .end(LocalDateTime.now().withNano(0).plusDays(i + 1).plusHours(1L))
+                    .itemId(itemIds.get((int) (i % itemIds.size())))
+                    .build(), bookerIds.get((int) (i / itemIds.size())));
+        }
+        em.flush();
+        em.clear();
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        List<BookingDto> smallPage = bookingService.findAllByOwner(ownerId, "ALL", 0, 2);
+        long smallPageStatements = statistics.getPrepareStatementCount();
+        em.clear();
+        statistics.clear();
+        List<BookingDto> largePage = bookingService.findAllByOwner(ownerId, "ALL", 0, 10);
+        long largePageStatements = statistics.getPrepareStatementCount();
+
+        assertThat(smallPage.size(), equalTo(2));
+        assertThat(largePage.size(), equalTo(10));
+        assertThat(largePage.stream().allMatch(booking -> booking.getBooker() != null && booking.getItem() != null),
+                equalTo(true));
+        assertThat(smallPageStatements, greaterThan(0L));
+        assertThat(largePageStatements, equalTo(smallPageStatements));
+    }
+
+    @Test
+    void testCreateAndApproveLoadEachRowOnce() {
+        Long ownerId = userService.add(User.builder().name("owner").email("email31@email.ru").build()).getId();
+        Long bookerId = userService.add(User.builder().name("booker").email("email32@email.ru").build()).getId();
+        Long itemId = itemService
+                .add(ItemDto.builder().name("name").description("description").available(true).build(), ownerId)
+                .getId();
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        em.flush();
+        em.clear();
+
+        statistics.clear();
+        Long bookingId = bookingService.create(Booking
+                .builder()
+                .start(LocalDateTime.now().withNano(0).plusDays(1L))
+                .end(LocalDateTime.now().withNano(0).plusDays(2L))
+                .itemId(itemId)
+                .build(), bookerId).getId();
+        em.flush();
+        long createStatements = statistics.getPrepareStatementCount();
+        em.clear();
+        statistics.clear();
+        bookingService.approve(bookingId, true, ownerId);
+        em.flush();
+        long approveStatements = statistics.getPrepareStatementCount();
+
+        // Booker, locked item, overlap check, booking insert, pointer row read and pointer row insert.
+        assertThat(createStatements, equalTo(6L));
+        assertThat(approveStatements, equalTo(6L));
+    }
+
+    @Test
+    void testCreateAllReportsResultPerElement() {
+        Long ownerId = userService.add(User.builder().name("owner").email("email33@email.ru").build()).getId();
+        Long bookerId = userService.add(User.builder().name("booker").email("email34@email.ru").build()).getId();
+        Long itemId = itemService
+                .add(ItemDto.builder().name("name").description("description").available(true).build(), ownerId)
+                .getId();
+        Long unavailableItemId = itemService
+                .add(ItemDto.builder().name("name").description("description").available(false).build(), ownerId)
+                .getId();
+        LocalDateTime start = LocalDateTime.now().withNano(0).plusDays(1L);
+        Long approvedId = bookingService.create(Booking.builder()
+                .start(start)
+                .end(start.plusHours(2L))
+                .itemId(itemId)
+                .build(), bookerId).getId();
+        bookingService.approve(approvedId, true, ownerId);
+        List<Booking> bookings = new ArrayList<>();
+        for (long i = 1; i <= 5; i++) {
+            bookings.add(Booking.builder().start(start.plusDays(i)).end(start.plusDays(i).plusHours(1L))
+                    .itemId(itemId).build());
+        }
+        bookings.add(Booking.builder().start(start.plusHours(1L)).end(start.plusHours(3L)).itemId(itemId).build());
+        bookings.add(Booking.builder().start(start).end(start.plusHours(1L)).itemId(unavailableItemId).build());
+        bookings.add(Booking.builder().start(start).end(start.plusHours(1L)).itemId(999L).build());
+        em.flush();
+        em.clear();
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<BookingBatchResult> results = bookingService.createAll(bookings, bookerId);
+        em.flush();
+        long createAllStatements = statistics.getPrepareStatementCount();
+
+        assertThat(results.size(), equalTo(8));
+        for (int i = 0; i < 5; i++) {
+            assertThat(results.get(i).getError(), nullValue());
+            assertThat(results.get(i).getBooking().getStatus(), equalTo(BookingStatus.WAITING));
+            assertThat(results.get(i).getBooking().getBooker().getId(), equalTo(bookerId));
+        }
+        assertThat(results.get(5).getError(), equalTo("The item is already booked for this time"));
+        assertThat(results.get(6).getError(), equalTo("Item isn't available for booking"));
+        assertThat(results.get(7).getError(), equalTo("Item not found"));
+        // Five booking inserts; booker, locked items, approved overlaps and pointer rows, which stay unchanged
+        // because the approved booking starts first.
+        assertThat(createAllStatements, equalTo(5L + 4L));
+        assertThat(bookingService.findAllByBooker(bookerId, "WAITING", 0, 10).size(), equalTo(5));
+    }
+
+    @Test
+    void testCreateAllReportsMissingDates() {
+        Long ownerId = userService.add(User.builder().name("owner").email("email38@email.ru").build()).getId();
+        Long bookerId = userService.add(User.builder().name("booker").email("email39@email.ru").build()).getId();
+        Long itemId = itemService
+                .add(ItemDto.builder().name("name").description("description").available(true).build(), ownerId)
+                .getId();
+        LocalDateTime start = LocalDateTime.now().withNano(0).plusDays(1L);
+
+        List<BookingBatchResult> results = bookingService.createAll(List.of(
+                Booking.builder().start(start).end(start.plusHours(1L)).itemId(itemId).build(),
+                Booking.builder().end(start.plusHours(1L)).itemId(itemId).build(),
+                Booking.builder().start(start).itemId(itemId).build()), bookerId);
+        List<BookingBatchResult> undated = bookingService.createAll(List.of(
+                Booking.builder().itemId(itemId).build()), bookerId);
+
+        assertThat(results.get(0).getError(), nullValue());
+        assertThat(results.get(1).getError(), equalTo("Booking start and end must be set"));
+        assertThat(results.get(2).getError(), equalTo("Booking start and end must be set"));
+        assertThat(undated.get(0).getError(), equalTo("Booking start and end must be set"));
+        assertThat(bookingService.findAllByBooker(bookerId, "ALL", 0, 10).size(), equalTo(1));
+    }
+
+    @Test
+    void testApproveAllReportsResultPerId() {
+        Long ownerId = userService.add(User.builder().name("owner").email("email35@email.ru").build()).getId();
+        Long otherOwnerId = userService.add(User.builder().name("other").email("email36@email.ru").build()).getId();
+        Long bookerId = userService.add(User.builder().name("booker").email("email37@email.ru").build()).getId();
+        Long itemId = itemService
+                .add(ItemDto.builder().name("name").description("description").available(true).build(), ownerId)
+                .getId();
+        Long otherItemId = itemService
+                .add(ItemDto.builder().name("name").description("description").available(true).build(),
+                        otherOwnerId)
+                .getId();
+        LocalDateTime start = LocalDateTime.now().withNano(0).plusDays(1L);
+        List<Long> bookingIds = new ArrayList<>();
+        for (long i = 0; i < 3; i++) {
+            bookingIds.add(bookingService.create(Booking.builder().start(start.plusDays(i))
+                    .end(start.plusDays(i).plusHours(1L)).itemId(itemId).build(), bookerId).getId());
+        }
+        bookingIds.add(bookingService.create(Booking.builder().start(start.plusMinutes(30L))
+                .end(start.plusHours(2L)).itemId(itemId).build(), bookerId).getId());
+        bookingIds.add(bookingService.create(Booking.builder().start(start)
+                .end(start.plusHours(1L)).itemId(otherItemId).build(), bookerId).getId());
+        bookingIds.add(999L);
+        em.flush();
+        em.clear();
+
+        List<BookingApprovalResult> results = bookingService.approveAll(bookingIds, true, ownerId);
+        em.flush();
+        em.clear();
+
+        assertThat(results.size(), equalTo(6));
+        for (int i = 0; i < 3; i++) {
+            assertThat(results.get(i).getStatus(), equalTo(BookingStatus.APPROVED));
+            assertThat(results.get(i).getError(), nullValue());
+        }
+        assertThat(results.get(3).getError(), equalTo("The item is already booked for this time"));
+        assertThat(results.get(4).getError(), equalTo("Booking not found"));
+        assertThat(results.get(5).getError(), equalTo("Booking not found"));
+        assertThat(bookingService.findAllByOwner(ownerId, "WAITING", 0, 10).size(), equalTo(1));
+        assertThat(bookingService.findAllByOwner(otherOwnerId, "WAITING", 0, 10).size(), equalTo(1));
+        assertThat(bookingService.approveAll(bookingIds.subList(0, 1), false, ownerId).get(0).getError(),
+                equalTo("The booking has already been approved"));
+    }
 }
@@ -1,20 +1,27 @@
 package ru.practicum.shareit.booking.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.*;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingPointersRepository;
 import ru.practicum.shareit.booking.validation.BookingValidation;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemCache;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSuggester;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserExistenceCache;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
@@ -51,9 +58,25 @@ class BookingServiceTest {
         bookingRepository = mock(BookingRepository.class);
         itemRepository = mock(ItemRepository.class);
         userRepository = mock(UserRepository.class);
-        BookingValidation bookingValidation = new BookingValidation(userRepository, itemRepository, bookingRepository);
-        BookingMapper bookingMapper = new BookingMapper(itemRepository, userRepository);
-        bookingService = new BookingServiceImpl(bookingRepository, bookingValidation, bookingMapper, itemRepository);
+        ItemCache itemCache = new ItemCache(itemRepository, new SimpleMeterRegistry());
+        BookingValidation bookingValidation = new BookingValidation(userRepository, itemRepository, bookingRepository,
+                itemCache, new UserExistenceCache(userRepository, new SimpleMeterRegistry()));
+        BookingMapper bookingMapper = new BookingMapper(itemRepository, userRepository, itemCache);
+        bookingService = new BookingServiceImpl(bookingRepository, bookingValidation, bookingMapper, itemRepository,
+                new ItemLocks(), new BookingPointers(mock(ItemBookingPointersRepository.class), bookingRepository,
+                        itemRepository,
+                        new TransactionTemplate(mock(PlatformTransactionManager.class))),
+                new ItemSuggester(itemRepository, bookingRepository));
+        when(itemRepository.findByIdForUpdate(any()))
+                .thenReturn(Optional.of(item));
+        when(bookingRepository.findItemIdById(any()))
+                .thenReturn(Optional.of(1L));
+        when(userRepository.findAllById(any()))
+                .thenReturn(List.of(user));
+        when(itemRepository.findAllById(any()))
+                .thenReturn(List.of(item));
+        when(itemRepository.findAllByIdForUpdate(any()))
+                .thenReturn(List.of(item));
         booking = Booking
                 .builder()
                 .id(1L)
@@ -107,13 +130,28 @@ class BookingServiceTest {
         assertEquals(exception.getMessage(), "User not found");
     }
 
+    @Test
+    void testCreateWithoutDates() {
+        when(userRepository.findById(any()))
+                .thenReturn(Optional.of(user));
+
+        booking.setStart(null);
+        final ValidationException exception = assertThrows(
+                ValidationException.class,
+                () -> bookingService.create(booking, 1L)
+        );
+
+        assertEquals(exception.getMessage(), "Booking start and end must be set");
+        verify(bookingRepository, never()).save(any());
+    }
+
     @Test
     void testCreateWrongItemId() {
         when(bookingRepository.save(any()))
                 .thenReturn(booking);
         when(userRepository.findById(any()))
                 .thenReturn(Optional.of(user));
-        when(itemRepository.findById(any()))
+        when(itemRepository.findByIdForUpdate(any()))
                 .thenReturn(Optional.empty());
 
         booking.setItemId(99L);
@@ -161,6 +199,41 @@ class BookingServiceTest {
         assertEquals(exception.getMessage(), "The owner can't book his item");
     }
 
+    @Test
+    void testCreateOverlapsApprovedBooking() {
+        when(userRepository.findById(any()))
+                .thenReturn(Optional.of(user));
+        when(itemRepository.findById(any()))
+                .thenReturn(Optional.of(item));
+        when(bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfter(any(), any(), any(), any()))
+                .thenReturn(true);
+
+        final ValidationException exception = assertThrows(
+                ValidationException.class,
+                () -> bookingService.create(booking, 1L)
+        );
+
+        assertEquals(exception.getMessage(), "The item is already booked for this time");
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void testApproveOverlapsApprovedBooking() {
+        when(bookingRepository.findById(any()))
+                .thenReturn(Optional.ofNullable(booking));
+        when(bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfterAndIdNot(any(), any(), any(), any(),
+                eq(1L)))
+                .thenReturn(true);
+
+        final ValidationException exception = assertThrows(
+                ValidationException.class,
+                () -> bookingService.approve(1L, true, 2L)
+        );
+
+        assertEquals(exception.getMessage(), "The item is already booked for this time");
+        assertEquals(booking.getStatus(), BookingStatus.WAITING);
+    }
+
     @Test
     void testApprove() {
         when(bookingRepository.save(any()))
@@ -273,6 +346,21 @@ class BookingServiceTest {
         assertEquals(exception.getMessage(), "The booking has already been approved");
     }
 
+    @Test
+    void testApproveAlreadyRejected() {
+        when(bookingRepository.findById(any()))
+                .thenReturn(Optional.ofNullable(booking));
+
+        booking.setStatus(BookingStatus.REJECTED);
+
+        final ValidationException exception = assertThrows(
+                ValidationException.class,
+                () -> bookingService.approve(1L, true, 2L)
+        );
+
+        assertEquals(exception.getMessage(), "The booking has already been rejected");
+    }
+
     @Test
     void testFindById() {
         when(bookingRepository.findById(any()))
@@ -389,7 +477,7 @@ class BookingServiceTest {
     @Test
     void testFindAllByBookerStateWaiting() {
         bookingPage = new PageImpl<>(Collections.singletonList(booking));
-        when(bookingRepository.findAllByBookerId(any(), any(Pageable.class)))
+        when(bookingRepository.findAllByBookerIdAndStatus(any(), any(), any(Pageable.class)))
                 .thenReturn(bookingPage);
         when(userRepository.findById(any()))
                 .thenReturn(Optional.of(user));
@@ -406,7 +494,7 @@ class BookingServiceTest {
     void testFindAllByBookerStateRejected() {
         booking.setStatus(BookingStatus.REJECTED);
         bookingPage = new PageImpl<>(Collections.singletonList(booking));
-        when(bookingRepository.findAllByBookerId(any(), any(Pageable.class)))
+        when(bookingRepository.findAllByBookerIdAndStatus(any(), any(), any(Pageable.class)))
                 .thenReturn(bookingPage);
         when(userRepository.findById(any()))
                 .thenReturn(Optional.of(user));
@@ -425,7 +513,7 @@ class BookingServiceTest {
     void testFindAllByBookerWrongSize() {
         booking.setStatus(BookingStatus.REJECTED);
         bookingPage = new PageImpl<>(Collections.singletonList(booking));
-        when(bookingRepository.findAllByBookerId(any(), any(Pageable.class)))
+        when(bookingRepository.findAllByBookerIdAndStatus(any(), any(), any(Pageable.class)))
                 .thenReturn(bookingPage);
         when(userRepository.findById(any()))
                 .thenReturn(Optional.of(user));
@@ -445,7 +533,7 @@ class BookingServiceTest {
     void testFindAllByBookerWrongFrom() {
         booking.setStatus(BookingStatus.REJECTED);
         bookingPage = new PageImpl<>(Collections.singletonList(booking));
-        when(bookingRepository.findAllByBookerId(any(), any(Pageable.class)))
+        when(bookingRepository.findAllByBookerIdAndStatus(any(), any(), any(Pageable.class)))
                 .thenReturn(bookingPage);
         when(userRepository.findById(any()))
                 .thenReturn(Optional.of(user));
@@ -463,8 +551,8 @@ class BookingServiceTest {
 
     @Test
     void testFindAllByOwnerNoItem() {
-        when(itemRepository.findAllIdByOwner(any()))
-                .thenReturn(itemsId);
+        when(itemRepository.existsByOwner(any()))
+                .thenReturn(false);
         when(userRepository.findById(any()))
                 .thenReturn(Optional.of(user));
         when(itemRepository.findById(any()))
@@ -482,9 +570,9 @@ class BookingServiceTest {
     void testFindAllByOwnerStateAllPage() {
         itemsId.add(1L);
         bookingPage = new PageImpl<>(Collections.singletonList(booking));
-        when(itemRepository.findAllIdByOwner(any()))
-                .thenReturn(itemsId);
-        when(bookingRepository.findAll(any(Pageable.class)))
+        when(itemRepository.existsByOwner(any()))
+                .thenReturn(true);
+        when(bookingRepository.findAllByOwnerId(any(), any(Pageable.class)))
                 .thenReturn(bookingPage);
         when(userRepository.findById(any()))
                 .thenReturn(Optional.of(user));
@@ -501,9 +589,9 @@ class BookingServiceTest {
     void testFindAllByOwnerStateFuture() {
         itemsId.add(1L);
         bookingPage = new PageImpl<>(Collections.singletonList(booking));
-        when(itemRepository.findAllIdByOwner(any()))
-                .thenReturn(itemsId);
-        when(bookingRepository.findAllByStartAfter(any(), any(Pageable.class)))
+        when(itemRepository.existsByOwner(any()))
+                .thenReturn(true);
+        when(bookingRepository.findAllByOwnerIdAndStartAfter(any(), any(), any(Pageable.class)))
                 .thenReturn(bookingPage);
         when(userRepository.findById(any()))
                 .thenReturn(Optional.of(user));
@@ -520,9 +608,9 @@ class BookingServiceTest {
     void testFindAllByOwnerStatePast() {
         itemsId.add(1L);
         bookingPage = new PageImpl<>(Collections.singletonList(booking));
-        when(itemRepository.findAllIdByOwner(any()))
-                .thenReturn(itemsId);
-        when(bookingRepository.findAllByEndBefore(any(), any(Pageable.class)))
+        when(itemRepository.existsByOwner(any()))
+                .thenReturn(true);
+        when(bookingRepository.findAllByOwnerIdAndEndBefore(any(), any(), any(Pageable.class)))
                 .thenReturn(bookingPage);
         when(userRepository.findById(any()))
                 .thenReturn(Optional.of(user));
@@ -539,9 +627,9 @@ class BookingServiceTest {
     void testFindAllByOwnerStateCurrent() {
         itemsId.add(1L);
         bookingPage = new PageImpl<>(Collections.singletonList(booking));
-        when(itemRepository.findAllIdByOwner(any()))
-                .thenReturn(itemsId);
-        when(bookingRepository.findAllByStartBeforeAndEndAfter(any(), any(), any(Pageable.class)))
+        when(itemRepository.existsByOwner(any()))
+                .thenReturn(true);
+        when(bookingRepository.findAllByOwnerIdAndStartBeforeAndEndAfter(any(), any(), any(), any(Pageable.class)))
                 .thenReturn(bookingPage);
         when(userRepository.findById(any()))
                 .thenReturn(Optional.of(user));
@@ -558,9 +646,9 @@ class BookingServiceTest {
     void testFindAllByOwnerStateWaiting() {
         itemsId.add(1L);
         bookingPage = new PageImpl<>(Collections.singletonList(booking));
-        when(itemRepository.findAllIdByOwner(any()))
-                .thenReturn(itemsId);
-        when(bookingRepository.findAll(any(Pageable.class)))
+        when(itemRepository.existsByOwner(any()))
+                .thenReturn(true);
+        when(bookingRepository.findAllByOwnerIdAndStatus(any(), any(), any(Pageable.class)))
                 .thenReturn(bookingPage);
         when(userRepository.findById(any()))
                 .thenReturn(Optional.of(user));
@@ -578,9 +666,9 @@ class BookingServiceTest {
         itemsId.add(1L);
         booking.setStatus(BookingStatus.REJECTED);
         bookingPage = new PageImpl<>(Collections.singletonList(booking));
-        when(itemRepository.findAllIdByOwner(any()))
-                .thenReturn(itemsId);
-        when(bookingRepository.findAll(any(Pageable.class)))
+        when(itemRepository.existsByOwner(any()))
+                .thenReturn(true);
+        when(bookingRepository.findAllByOwnerIdAndStatus(any(), any(), any(Pageable.class)))
                 .thenReturn(bookingPage);
         when(userRepository.findById(any()))
                 .thenReturn(Optional.of(user));
@@ -599,9 +687,9 @@ class BookingServiceTest {
     void testFindAllByOwnerWrongSize() {
         itemsId.add(1L);
         bookingPage = new PageImpl<>(Collections.singletonList(booking));
-        when(itemRepository.findAllIdByOwner(any()))
-                .thenReturn(itemsId);
-        when(bookingRepository.findAll(any(Pageable.class)))
+        when(itemRepository.existsByOwner(any()))
+                .thenReturn(true);
+        when(bookingRepository.findAllByOwnerId(any(), any(Pageable.class)))
                 .thenReturn(bookingPage);
         when(userRepository.findById(any()))
                 .thenReturn(Optional.of(user));
@@ -621,9 +709,9 @@ class BookingServiceTest {
     void testFindAllByOwnerWrongFrom() {
         itemsId.add(1L);
         bookingPage = new PageImpl<>(Collections.singletonList(booking));
-        when(itemRepository.findAllIdByOwner(any()))
-                .thenReturn(itemsId);
-        when(bookingRepository.findAll(any(Pageable.class)))
+        when(itemRepository.existsByOwner(any()))
+                .thenReturn(true);
+        when(bookingRepository.findAllByOwnerId(any(), any(Pageable.class)))
                 .thenReturn(bookingPage);
         when(userRepository.findById(any()))
                 .thenReturn(Optional.of(user));
@@ -9,7 +9,9 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreeSlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDto;
 import ru.practicum.shareit.item.service.ItemService;
 
@@ -20,6 +22,7 @@ import java.util.List;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -139,10 +142,39 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$[0].requestId", is(itemWithBookingDto.getRequestId()), Long.class));
     }
 
+    @Test
+    void testFindAvailability() throws Exception {
+        LocalDateTime start = LocalDateTime.now().withNano(0);
+        when(itemService.findAvailability(any(), any(), any(), any()))
+                .thenReturn(List.of(FreeSlotDto.builder().start(start).end(start.plusDays(1L)).build()));
+
+        mockMvc.perform(get("/items/{itemId}/availability", 1)
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("from", start.toString())
+                        .param("to", start.plusDays(1L).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].start", is(start.toString())))
+                .andExpect(jsonPath("$[0].end", is(start.plusDays(1L).toString())));
+    }
+
+    @Test
+    void testSuggest() throws Exception {
+        when(itemService.suggest(any(), any()))
+                .thenReturn(List.of(new ItemSuggestionDto(1L, "Дрель")));
+
+        mockMvc.perform(get("/items/suggest")
+                        .param("prefix", "дре"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(1L), Long.class))
+                .andExpect(jsonPath("$[0].name", is("Дрель")));
+    }
+
     @Test
     void testFindByText() throws Exception {
         itemDtos.add(itemDto);
-        when(itemService.findByText(any(), any(), any()))
+        when(itemService.findByText(any(), any(), anyBoolean(), any(), any()))
                 .thenReturn(itemDtos);
 
         mockMvc.perform(get("/items/search")
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.item.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ItemCacheTest {
+
+    private ItemRepository itemRepository;
+    private MeterRegistry meterRegistry;
+    private ItemCache itemCache;
+    private final Item item = new Item(1L, "name", "description", true, 1L, null);
+
+    @BeforeEach
+    void beforeEach() {
+        itemRepository = mock(ItemRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        itemCache = new ItemCache(itemRepository, meterRegistry);
+    }
+
+    @Test
+    void testFindByIdLoadsOnce() {
+        when(itemRepository.findById(1L))
+                .thenReturn(Optional.of(item));
+
+        assertEquals(item, itemCache.findById(1L).get());
+        assertEquals(item, itemCache.findById(1L).get());
+
+        verify(itemRepository, times(1)).findById(1L);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "items").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "items").tag("result", "miss")
+                .functionCounter().count());
+    }
+
+    @Test
+    void testFindByIdReturnsCopies() {
+        when(itemRepository.findById(1L))
+                .thenReturn(Optional.of(item));
+
+        itemCache.findById(1L).get().setAvailable(false);
+        item.setOwner(2L);
+
+        Item result = itemCache.findById(1L).get();
+        assertTrue(result.getAvailable());
+        assertEquals(1L, result.getOwner());
+    }
+
+    @Test
+    void testFindByIdDoesNotCacheMissingItems() {
+        when(itemRepository.findById(any()))
+                .thenReturn(Optional.empty());
+
+        assertTrue(itemCache.findById(99L).isEmpty());
+        assertTrue(itemCache.findById(99L).isEmpty());
+
+        verify(itemRepository, times(2)).findById(99L);
+    }
+
+    @Test
+    void testEvict() {
+        when(itemRepository.findById(1L))
+                .thenReturn(Optional.of(item))
+                .thenReturn(Optional.of(new Item(1L, "name", "description", false, 1L, null)));
+
+        assertTrue(itemCache.findById(1L).get().getAvailable());
+        itemCache.evict(1L);
+
+        assertFalse(itemCache.findById(1L).get().getAvailable());
+        verify(itemRepository, times(2)).findById(1L);
+    }
+}
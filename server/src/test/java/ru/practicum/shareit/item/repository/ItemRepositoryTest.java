@@ -6,8 +6,6 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -60,20 +58,6 @@ class ItemRepositoryTest {
         assertEquals(resultIds, itemIds);
     }
 
-    @Test
-    void findByText() {
-        final Page<Item> resultItems = itemRepository.findByText("text", Pageable.unpaged());
-        assertEquals(resultItems.getTotalElements(), 2);
-        assertEquals(resultItems.toList().get(0), item1);
-        assertEquals(resultItems.toList().get(1), item3);
-    }
-
-    @Test
-    void findByTextNotFindText() {
-        final Page<Item> resultItems = itemRepository.findByText("text1", Pageable.unpaged());
-        assertEquals(resultItems.getTotalElements(), 0);
-    }
-
     @AfterEach
     void afterEach() {
         itemRepository.deleteAll();
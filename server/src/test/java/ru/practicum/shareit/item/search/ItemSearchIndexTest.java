@@ -0,0 +1,196 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ItemSearchIndexTest {
+
+    private ItemRepository itemRepository;
+    private MeterRegistry meterRegistry;
+    private ItemSearchIndex itemSearchIndex;
+
+    @BeforeEach
+    void beforeEach() {
+        itemRepository = mock(ItemRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        itemSearchIndex = new ItemSearchIndex(itemRepository, meterRegistry);
+        itemSearchIndex.put(new Item(1L, "Аккумуляторная дрель", "Дрель с зарядкой", true, 1L, null));
+        itemSearchIndex.put(new Item(2L, "Отвертка", "Крестовая отвертка", true, 1L, null));
+        itemSearchIndex.put(new Item(3L, "Drill", "Cordless DRILL with battery", true, 2L, null));
+    }
+
+    @Test
+    void testFindByTextMatchesSubstringIgnoringCase() {
+        assertEquals(List.of(1L), ids("ДРЕЛЬ"));
+        assertEquals(List.of(1L), ids("ная др"));
+        assertEquals(List.of(3L), ids("rill"));
+        assertEquals(List.of(2L), ids("ка"));
+        assertEquals(List.of(), ids("дрель отвертка"));
+    }
+
+    @Test
+    void testFindByTextDoesNotMatchAcrossFields() {
+        assertEquals(List.of(), ids("дрельдрель"));
+        assertEquals(List.of(), ids("drillcordless"));
+    }
+
+    @Test
+    void testFindByTextPages() {
+        itemSearchIndex.put(new Item(4L, "Дрель ударная", "Дрель", true, 2L, null));
+        itemSearchIndex.put(new Item(5L, "Дрель-шуруповерт", "Дрель", true, 2L, null));
+
+        assertEquals(List.of(1L, 4L), ids("дрель", PageRequest.of(0, 2)));
+        assertEquals(List.of(5L), ids("дрель", PageRequest.of(1, 2)));
+    }
+
+    @Test
+    void testFindByTextReturnsFullPagesOfAvailableItems() {
+        for (long i = 4; i < 100; i++) {
+            itemSearchIndex.put(new Item(i, "Дрель " + i, "description", i % 10 == 0, 2L, null));
+        }
+
+        assertEquals(List.of(1L, 10L, 20L), ids("дрель", PageRequest.of(0, 3)));
+        assertEquals(List.of(30L, 40L, 50L), ids("дрель", PageRequest.of(1, 3)));
+        assertEquals(List.of(90L), ids("дрель", PageRequest.of(3, 3)));
+        assertEquals(List.of(1L, 2L, 3L, 10L), ids("", PageRequest.of(0, 4)));
+    }
+
+    @Test
+    void testFindByTextMatchesInflectedForms() {
+        itemSearchIndex.put(new Item(4L, "Перфоратор", "Сверлит дрелью и долбит бетон", true, 2L, null));
+        itemSearchIndex.put(new Item(5L, "Набор бит", "Подходит для дрелей и шуруповертов", true, 2L, null));
+
+        assertEquals(List.of(1L, 4L, 5L), ids("дрель"));
+        assertEquals(List.of(1L, 4L, 5L), ids("дрелью"));
+        assertEquals(List.of(4L), ids("бетона"));
+        assertEquals(List.of(3L), ids("drills"));
+        assertEquals(List.of(5L), ids("для"));
+    }
+
+    @Test
+    void testFindByTextFuzzyToleratesTypos() {
+        itemSearchIndex.put(new Item(4L, "Перфоратор", "Сверлит дрелью и долбит бетон", true, 2L, null));
+
+        assertEquals(List.of(), ids("дркль"));
+        assertEquals(List.of(1L, 4L), fuzzyIds("дркль", SearchOrder.ID));
+        assertEquals(List.of(4L), fuzzyIds("пефоратор", SearchOrder.ID));
+        assertEquals(List.of(4L), fuzzyIds("перфаратр", SearchOrder.ID));
+        assertEquals(List.of(3L), fuzzyIds("dril", SearchOrder.ID));
+        assertEquals(List.of(1L, 4L), fuzzyIds("дрель", SearchOrder.RELEVANCE));
+        assertEquals(List.of(), fuzzyIds("молоток", SearchOrder.ID));
+    }
+
+    @Test
+    void testFindByTextRanksByRelevance() {
+        itemSearchIndex.put(new Item(4L, "Перфоратор", "Работает как дрель и как отбойный молоток", true, 2L, null));
+        itemSearchIndex.put(new Item(5L, "Дрель", "Ударная", true, 2L, null));
+        itemSearchIndex.put(new Item(6L, "Дрель ударная", "Дрель для бетона, сверлит дрелью быстрее", true, 2L, null));
+
+        assertEquals(List.of(1L, 6L, 5L, 4L), ids("дрель", SearchOrder.RELEVANCE, PageRequest.of(0, 10)));
+        assertEquals(List.of(1L, 6L), ids("дрель", SearchOrder.RELEVANCE, PageRequest.of(0, 2)));
+        assertEquals(List.of(5L, 4L), ids("дрель", SearchOrder.RELEVANCE, PageRequest.of(1, 2)));
+        assertEquals(List.of(1L, 4L, 5L, 6L), ids("дрель", SearchOrder.ID, PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void testPutReindexesAvailability() {
+        itemSearchIndex.put(new Item(1L, "Аккумуляторная дрель", "Дрель с зарядкой", false, 1L, null));
+
+        assertEquals(List.of(), ids("дрель"));
+
+        itemSearchIndex.put(new Item(1L, "Аккумуляторная дрель", "Дрель с зарядкой", true, 1L, null));
+
+        assertEquals(List.of(1L), ids("дрель"));
+    }
+
+    @Test
+    void testPutReindexesUpdatedItem() {
+        itemSearchIndex.put(new Item(2L, "Шуруповерт", "Аккумуляторный", true, 1L, null));
+
+        assertEquals(List.of(), ids("отвертка"));
+        assertEquals(List.of(1L, 2L), ids("аккумулятор"));
+        assertEquals(List.of(2L), ids("шуруп"));
+    }
+
+    @Test
+    void testFindByTextCachesResults() {
+        assertEquals(List.of(1L), ids("дрель"));
+        assertEquals(List.of(1L), ids("дрель"));
+        itemSearchIndex.put(new Item(4L, "Молоток", "Стальной", true, 2L, null));
+        assertEquals(List.of(1L), ids("ДРЕЛЬ"));
+
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("cache", "itemSearch").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "itemSearch").tag("result", "miss")
+                .functionCounter().count());
+        assertTrue(meterRegistry.get("cache.memory").tag("cache", "itemSearch").gauge().value() > 0);
+    }
+
+    @Test
+    void testPutInvalidatesAffectedResults() {
+        assertEquals(List.of(1L), ids("дрель"));
+        assertEquals(List.of(2L), ids("отвертка"));
+        assertEquals(List.of(1L), fuzzyIds("дркль", SearchOrder.ID));
+
+        itemSearchIndex.put(new Item(4L, "Перфоратор", "Сверлит дрелью", true, 2L, null));
+        itemSearchIndex.put(new Item(2L, "Отвертка", "Крестовая отвертка", false, 1L, null));
+
+        assertEquals(List.of(1L, 4L), ids("дрель"));
+        assertEquals(List.of(), ids("отвертка"));
+        assertEquals(List.of(1L, 4L), fuzzyIds("дркль", SearchOrder.ID));
+    }
+
+    @Test
+    void testRebuild() {
+        List<Item> page = new ArrayList<>();
+        for (long i = 1; i <= 1000; i++) {
+            page.add(new Item(i, "name" + i, "description", true, 1L, null));
+        }
+        when(itemRepository.findFirst1000ByIdGreaterThanOrderByIdAsc(eq(0L)))
+                .thenReturn(page);
+        when(itemRepository.findFirst1000ByIdGreaterThanOrderByIdAsc(eq(1000L)))
+                .thenReturn(List.of(new Item(1001L, "Дрель", "description", true, 1L, null)));
+
+        itemSearchIndex.rebuild();
+
+        assertEquals(List.of(1001L), ids("дрель"));
+        assertEquals(List.of(999L), ids("name999"));
+        assertEquals(List.of(), ids("отвертка"));
+    }
+
+    private List<Long> ids(String text) {
+        return ids(text, PageRequest.of(0, 10));
+    }
+
+    private List<Long> ids(String text, PageRequest pageRequest) {
+        return ids(text, SearchOrder.ID, pageRequest);
+    }
+
+    private List<Long> ids(String text, SearchOrder order, PageRequest pageRequest) {
+        return itemSearchIndex.findByText(text, order, false, pageRequest)
+                .stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+    }
+
+    private List<Long> fuzzyIds(String text, SearchOrder order) {
+        return itemSearchIndex.findByText(text, order, true, PageRequest.of(0, 10))
+                .stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,113 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingCount;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ItemSuggesterTest {
+
+    private ItemRepository itemRepository;
+    private BookingRepository bookingRepository;
+    private ItemSuggester itemSuggester;
+
+    @BeforeEach
+    void beforeEach() {
+        itemRepository = mock(ItemRepository.class);
+        bookingRepository = mock(BookingRepository.class);
+        itemSuggester = new ItemSuggester(itemRepository, bookingRepository);
+        itemSuggester.put(new Item(1L, "Аккумуляторная дрель", "description", true, 1L, null));
+        itemSuggester.put(new Item(2L, "Дрель ударная", "description", true, 1L, null));
+        itemSuggester.put(new Item(3L, "Отвертка", "description", true, 2L, null));
+    }
+
+    @Test
+    void testSuggestMatchesWordPrefixes() {
+        assertEquals(List.of(1L, 2L), ids("ДРЕ"));
+        assertEquals(List.of(1L), ids("аккумуляторная д"));
+        assertEquals(List.of(2L), ids("удар"));
+        assertEquals(List.of(), ids("рель"));
+        assertEquals(List.of(1L, 2L, 3L), ids(""));
+    }
+
+    @Test
+    void testSuggestRanksByBookings() {
+        itemSuggester.addBookings(2L, 3);
+        itemSuggester.addBookings(1L, 1);
+
+        assertEquals(List.of(2L, 1L), ids("дрель"));
+        assertEquals(List.of(2L), itemSuggester.suggest("дрель", 1)
+                .stream()
+                .map(ItemSuggestionDto::getId)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void testSuggestKeepsTopSuggestions() {
+        for (long i = 4; i < 30; i++) {
+            itemSuggester.put(new Item(i, "Дрель " + i, "description", true, 2L, null));
+        }
+        itemSuggester.addBookings(29L, 1);
+
+        List<Long> ids = ids("дрель");
+
+        assertEquals(ItemSuggester.MAX_SUGGESTIONS, ids.size());
+        assertEquals(List.of(29L, 1L, 2L, 4L), ids.subList(0, 4));
+    }
+
+    @Test
+    void testPutReindexesUpdatedItem() {
+        itemSuggester.put(new Item(2L, "Шуруповерт", "description", true, 1L, null));
+        itemSuggester.put(new Item(3L, "Отвертка", "description", false, 2L, null));
+
+        assertEquals(List.of(1L), ids("дрель"));
+        assertEquals(List.of(2L), ids("шуруп"));
+        assertEquals(List.of(), ids("отв"));
+    }
+
+    @Test
+    void testRebuild() {
+        when(bookingRepository.countAllGroupByItemId())
+                .thenReturn(List.of(count(2L, 5L)));
+        when(itemRepository.findFirst1000ByIdGreaterThanOrderByIdAsc(eq(0L)))
+                .thenReturn(List.of(new Item(1L, "Дрель", "description", true, 1L, null),
+                        new Item(2L, "Дрель ударная", "description", true, 1L, null)));
+
+        itemSuggester.rebuild();
+
+        assertEquals(List.of(2L, 1L), ids("дрель"));
+        assertEquals(List.of(), ids("отвертка"));
+    }
+
+    private List<Long> ids(String prefix) {
+        return itemSuggester.suggest(prefix, ItemSuggester.MAX_SUGGESTIONS)
+                .stream()
+                .map(ItemSuggestionDto::getId)
+                .collect(Collectors.toList());
+    }
+
+    private static ItemBookingCount count(Long itemId, Long bookings) {
+        return new ItemBookingCount() {
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public Long getBookings() {
+                return bookings;
+            }
+        };
+    }
+}
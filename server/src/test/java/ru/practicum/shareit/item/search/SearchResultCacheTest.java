@@ -0,0 +1,80 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchResultCacheTest {
+
+    private final List<Item> items = List.of(new Item(1L, "Дрель", "Ударная", true, 1L, null));
+    private SearchResultCache resultCache;
+
+    @BeforeEach
+    void beforeEach() {
+        resultCache = new SearchResultCache(new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testInvalidateChecksOnlyReachableKeys() {
+        SearchResultCache.Key byText = key("рель", new String[]{"рел"}, false);
+        SearchResultCache.Key byTerm = key("дрелью", new String[]{"дрел"}, false);
+        SearchResultCache.Key byFuzzyTerm = key("дркль", new String[]{"дркл"}, true);
+        SearchResultCache.Key unrelated = key("молоток", new String[]{"молоток"}, true);
+        for (SearchResultCache.Key key : List.of(byText, byTerm, byFuzzyTerm, unrelated)) {
+            resultCache.put(key, items);
+        }
+        List<SearchResultCache.Key> checked = new ArrayList<>();
+        Predicate<SearchResultCache.Key> affected = key -> checked.add(key) && key != byTerm;
+
+        resultCache.invalidate(List.of("дрель"), Set.of("дрел"), affected);
+
+        assertEquals(Set.of(byText, byTerm, byFuzzyTerm), Set.copyOf(checked));
+        assertNull(resultCache.get(byText));
+        assertEquals(items, resultCache.get(byTerm));
+        assertNull(resultCache.get(byFuzzyTerm));
+        assertEquals(items, resultCache.get(unrelated));
+    }
+
+    @Test
+    void testInvalidateChecksEmptyQuery() {
+        SearchResultCache.Key all = key("", new String[0], false);
+        resultCache.put(all, items);
+
+        resultCache.invalidate(Collections.singletonList(null), Set.of(), key -> true);
+
+        assertNull(resultCache.get(all));
+    }
+
+    @Test
+    void testSweepUnregistersEvictedKeys() {
+        List<Item> page = Collections.nCopies(1_000, items.get(0));
+        for (int i = 0; i < 3_000; i++) {
+            resultCache.put(key("дрель" + i, new String[]{"дрель" + i}, true), page);
+        }
+
+        assertTrue(resultCache.needsSweep());
+
+        resultCache.sweep();
+
+        assertFalse(resultCache.needsSweep());
+        SearchResultCache.Key last = key("дрель2999", new String[]{"дрель2999"}, true);
+        assertEquals(page, resultCache.get(last));
+
+        resultCache.invalidate(List.of(), Set.of("дрель2999"), key -> true);
+
+        assertNull(resultCache.get(last));
+    }
+
+    private static SearchResultCache.Key key(String query, String[] terms, boolean fuzzy) {
+        return new SearchResultCache.Key(query, terms, SearchOrder.ID, fuzzy, 0, 10);
+    }
+}
@@ -0,0 +1,159 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TermDictionaryTest {
+
+    private static final int LARGE_DICTIONARY_SIZE = 1_000_000;
+    private static final int WARM_UP_QUERIES = 2_000;
+    private static final int MEASURED_QUERIES = 5_000;
+    private static final long P99_LIMIT_NANOS = 5_000_000L;
+
+    @Test
+    void testDistance() {
+        assertEquals(0, TermDictionary.distance("дрел", "дрел"));
+        assertEquals(1, TermDictionary.distance("дрел", "дрл"));
+        assertEquals(2, TermDictionary.distance("дрел", "дрле"));
+        assertEquals(2, TermDictionary.distance("дрел", "дрль"));
+        assertEquals(3, TermDictionary.distance("kitten", "sitting"));
+        assertEquals(4, TermDictionary.distance("", "дрел"));
+    }
+
+    @Test
+    void testSearch() {
+        TermDictionary dictionary = new TermDictionary();
+        for (String term : List.of("дрел", "дрол", "пил", "перфоратор", "шуруповерт", "молоток", "мол", "дрел")) {
+            dictionary.add(term);
+        }
+
+        assertEquals(7, dictionary.size());
+        assertEquals(Set.of("дрел", "дрол"), new HashSet<>(dictionary.search("дрел", 1)));
+        assertEquals(Set.of("перфоратор"), new HashSet<>(dictionary.search("перфаратр", 2)));
+        assertEquals(Set.of("мол", "пил"), new HashSet<>(dictionary.search("мил", 1)));
+        assertEquals(List.of(), dictionary.search("отвертк", 2));
+
+        dictionary.clear();
+
+        assertEquals(List.of(), dictionary.search("дрел", 1));
+    }
+
+    @Test
+    void testSearchFindsEveryTermWithinDistance() {
+        Random random = new Random(1);
+        List<String> terms = randomTerms(random, 20_000);
+        TermDictionary dictionary = new TermDictionary();
+        terms.forEach(dictionary::add);
+
+        for (int i = 0; i < 200; i++) {
+            String query = typo(random, terms.get(random.nextInt(terms.size())));
+            int maxDistance = 1 + i % 2;
+            Set<String> expected = terms.stream()
+                    .filter(term -> TermDictionary.distance(query, term) <= maxDistance)
+                    .collect(Collectors.toSet());
+
+            assertEquals(expected, new HashSet<>(dictionary.search(query, maxDistance)), query);
+        }
+    }
+
+    @Test
+    void testRemove() {
+        TermDictionary dictionary = new TermDictionary();
+        for (String term : List.of("дрел", "дрол", "дрелью")) {
+            dictionary.add(term);
+        }
+
+        dictionary.remove("дрел");
+        dictionary.remove("отвертк");
+
+        assertEquals(2, dictionary.size());
+        assertEquals(List.of("дрол"), dictionary.search("дрел", 1));
+        assertEquals(List.of("дрелью"), dictionary.search("дрелю", 1));
+
+        dictionary.add("дрел");
+
+        assertEquals(Set.of("дрел", "дрол"), new HashSet<>(dictionary.search("дрел", 1)));
+    }
+
+    @Test
+    void testRemoveCompactsDeadTerms() {
+        Random random = new Random(2);
+        List<String> terms = randomTerms(random, 10_000);
+        TermDictionary dictionary = new TermDictionary();
+        terms.forEach(dictionary::add);
+
+        List<String> removed = terms.subList(0, 9_000);
+        removed.forEach(dictionary::remove);
+
+        assertEquals(1_000, dictionary.size());
+        for (String term : removed.subList(0, 100)) {
+            assertFalse(dictionary.search(term, 0).contains(term), term);
+        }
+        for (String term : terms.subList(9_000, 9_100)) {
+            assertEquals(List.of(term), dictionary.search(term, 0));
+        }
+    }
+
+    @Test
+    void testSearchLatencyOnMillionTerms() {
+        Random random = new Random(3);
+        List<String> terms = randomTerms(random, LARGE_DICTIONARY_SIZE);
+        TermDictionary dictionary = new TermDictionary();
+        terms.forEach(dictionary::add);
+        long[] latencies = new long[MEASURED_QUERIES];
+
+        for (int i = 0; i < WARM_UP_QUERIES + MEASURED_QUERIES; i++) {
+            String query = typo(random, terms.get(random.nextInt(terms.size())));
+            int maxDistance = query.length() >= 6 ? 2 : 1;
+            long start = System.nanoTime();
+            assertFalse(dictionary.search(query, maxDistance).isEmpty(), query);
+            if (i >= WARM_UP_QUERIES) {
+                latencies[i - WARM_UP_QUERIES] = System.nanoTime() - start;
+            }
+        }
+
+        Arrays.sort(latencies);
+        long p99 = latencies[MEASURED_QUERIES * 99 / 100];
+        assertTrue(p99 < P99_LIMIT_NANOS, "p99 " + p99 / 1_000 + " us");
+    }
+
+    /**
+     * Terms of four to twelve letters of the Russian alphabet.
+     */
+    private static List<String> randomTerms(Random random, int count) {
+        Set<String> terms = new HashSet<>();
+        while (terms.size() < count) {
+            char[] term = new char[4 + random.nextInt(9)];
+            for (int i = 0; i < term.length; i++) {
+                term[i] = (char) ('а' + random.nextInt(32));
+            }
+            terms.add(new String(term));
+        }
+        return new ArrayList<>(terms);
+    }
+
+    /**
+     * Replaces, drops or inserts one letter of the term.
+     */
+    private static String typo(Random random, String term) {
+        int position = random.nextInt(term.length());
+        char letter = (char) ('а' + random.nextInt(32));
+        switch (random.nextInt(3)) {
+            case 0:
+                return term.substring(0, position) + letter + term.substring(position + 1);
+            case 1:
+                return term.substring(0, position) + term.substring(position + 1);
+            default:
+                return term.substring(0, position) + letter + term.substring(position);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.item.search.analysis;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalyzerTest {
+
+    private final Analyzer analyzer = Analyzer.russianEnglish();
+
+    @Test
+    void testAnalyzeRussianInflections() {
+        assertArrayEquals(new String[]{"дрел", "дрел", "дрел", "дрел"}, analyzer.analyze("Дрель, дрелью, ДРЕЛИ дрелей"));
+        assertArrayEquals(new String[]{"аккумуляторн", "аккумуляторн"},
+                analyzer.analyze("аккумуляторная аккумуляторный"));
+        assertArrayEquals(new String[]{"елк"}, analyzer.analyze("Ёлка"));
+    }
+
+    @Test
+    void testAnalyzeEnglishInflections() {
+        assertArrayEquals(new String[]{"drill", "drill", "battery", "batter", "box"},
+                analyzer.analyze("Drills drilling batteries battered boxes"));
+    }
+
+    @Test
+    void testAnalyzeDropsStopWordsAndSeparators() {
+        assertArrayEquals(new String[]{"дрел", "бетон", "wall"}, analyzer.analyze("Дрель для бетона -- and the wall!"));
+        assertArrayEquals(new String[0], analyzer.analyze(null));
+    }
+
+    @Test
+    void testCustomChain() {
+        Analyzer upperCase = new Analyzer(List.of(token -> token.length() > 2 ? token.toUpperCase() : null));
+
+        assertArrayEquals(new String[]{"DRILL", "SET"}, upperCase.analyze("drill, a set"));
+    }
+}
@@ -1,13 +1,18 @@
 package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingPointers;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
@@ -18,16 +23,19 @@ import javax.persistence.TypedQuery;
 import javax.transaction.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.notNullValue;
 
 @Transactional
 @SpringBootTest(
-        properties = "db.name=test",
+        properties = {"db.name=test", "spring.jpa.properties.hibernate.generate_statistics=true",
+                "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"},
         webEnvironment = SpringBootTest.WebEnvironment.NONE)
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
@@ -37,6 +45,7 @@ class ItemServiceImplTest {
     private final ItemService itemService;
     private final UserService userService;
     private final BookingService bookingService;
+    private final BookingPointers bookingPointers;
 
     @Test
     void testAdd() {
@@ -105,6 +114,32 @@ class ItemServiceImplTest {
         assertThat(result.getRequestId(), equalTo(item1.getRequestId()));
     }
 
+    @Test
+    void testFindByIdReadsStoredLastAndNextBooking() {
+        Long ownerId = userService.add(User.builder().name("owner").email("email41@email.ru").build()).getId();
+        Long bookerId = userService.add(User.builder().name("booker").email("email42@email.ru").build()).getId();
+        Long itemId = itemService
+                .add(ItemDto.builder().name("name").description("description").available(true).build(), ownerId)
+                .getId();
+        LocalDateTime presentTime = LocalDateTime.now().withNano(0);
+        Booking last = Booking.builder().start(presentTime.minusDays(2L)).end(presentTime.minusDays(1L))
+                .itemId(itemId).bookerId(bookerId).status(BookingStatus.APPROVED).build();
+        em.persist(last);
+        // Booked without the service, as before the pointers table existed, so only the startup backfill sees it.
+        bookingPointers.warmUp();
+        bookingService.create(Booking.builder().start(presentTime.plusDays(2L))
+                .end(presentTime.plusDays(3L)).itemId(itemId).build(), bookerId);
+        Long nextId = bookingService.create(Booking.builder().start(presentTime.plusDays(1L))
+                .end(presentTime.plusDays(2L)).itemId(itemId).build(), bookerId).getId();
+        em.flush();
+
+        ItemWithBookingDto result = itemService.findById(itemId, ownerId);
+
+        assertThat(result.getLastBooking().getId(), equalTo(last.getId()));
+        assertThat(result.getNextBooking().getId(), equalTo(nextId));
+        assertThat(bookingPointers.findInconsistentItems(List.of(itemId), LocalDateTime.now()).size(), equalTo(0));
+    }
+
     @Test
     void testFindAllByOwner() {
         ItemDto item1 = ItemDto.builder().name("name1").description("description1").available(true).build();
@@ -130,6 +165,40 @@ class ItemServiceImplTest {
         assertThat(result.get(0).getRequestId(), equalTo(item1.getRequestId()));
     }
 
+    @Test
+    void testFindAllByOwnerLoadsCommentsInBulk() {
+        Long ownerId = userService.add(User.builder().name("owner").email("email40@email.ru").build()).getId();
+        List<Long> itemIds = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            itemIds.add(itemService.add(ItemDto.builder().name("name" + i).description("description").available(true)
+                    .build(), ownerId).getId());
+        }
+        for (int i = 0; i < 6; i++) {
+            Long authorId = userService.add(User.builder().name("author" + i).email("author" + i + "@email.ru")
+                    .build()).getId();
+            em.persist(Comment.builder().text("text" + i).itemId(itemIds.get(i % 3)).authorId(authorId).build());
+        }
+        em.flush();
+        em.clear();
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        List<ItemWithBookingDto> smallPage = itemService.findAllByOwner(ownerId, 0, 2);
+        long smallPageStatements = statistics.getPrepareStatementCount();
+        em.clear();
+        statistics.clear();
+        List<ItemWithBookingDto> largePage = itemService.findAllByOwner(ownerId, 0, 6);
+        long largePageStatements = statistics.getPrepareStatementCount();
+
+        assertThat(smallPage.size(), equalTo(2));
+        assertThat(largePage.size(), equalTo(6));
+        assertThat(largePage.get(0).getComments().size(), equalTo(2));
+        assertThat(largePage.get(0).getComments().get(0).getAuthorName(), equalTo("author0"));
+        assertThat(largePage.get(5).getComments().size(), equalTo(0));
+        assertThat(smallPageStatements, greaterThan(0L));
+        assertThat(largePageStatements, equalTo(smallPageStatements));
+    }
+
     @Test
     void testFindByText() {
         ItemDto item1 = ItemDto.builder().name("name1Text").description("description1").available(true).build();
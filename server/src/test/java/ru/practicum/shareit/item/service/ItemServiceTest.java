@@ -1,21 +1,33 @@
 package ru.practicum.shareit.item.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.*;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingPointersRepository;
+import ru.practicum.shareit.booking.service.BookingPointers;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemCache;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSuggester;
 import ru.practicum.shareit.item.validation.ItemValidation;
+import ru.practicum.shareit.requests.matching.RequestMatcher;
+import ru.practicum.shareit.requests.repository.ItemRequestRepository;
+import ru.practicum.shareit.requests.repository.RequestMatchRepository;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserExistenceCache;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
@@ -39,6 +51,7 @@ class ItemServiceTest {
     @MockBean
     private UserRepository userRepository;
     private ItemService itemService;
+    private ItemSearchIndex itemSearchIndex;
     private Item item;
     private ItemDto itemDto;
     private ItemDto resultItem;
@@ -94,9 +107,17 @@ class ItemServiceTest {
         commentRepository = mock(CommentRepository.class);
         userRepository = mock(UserRepository.class);
         CommentMapper commentMapper = new CommentMapper(userRepository);
-        ItemMapper itemMapper = new ItemMapper(bookingRepository, commentRepository, commentMapper);
-        ItemValidation itemValidation = new ItemValidation(userRepository, itemRepository, bookingRepository);
-        itemService = new ItemServiceImpl(itemRepository, itemMapper, itemValidation, commentRepository, commentMapper);
+        ItemMapper itemMapper = new ItemMapper(new BookingPointers(mock(ItemBookingPointersRepository.class),
+                bookingRepository, itemRepository, new TransactionTemplate(mock(PlatformTransactionManager.class))),
+                commentRepository, commentMapper);
+        ItemCache itemCache = new ItemCache(itemRepository, new SimpleMeterRegistry());
+        ItemValidation itemValidation = new ItemValidation(new UserExistenceCache(userRepository,
+                new SimpleMeterRegistry()), itemRepository, itemCache, bookingRepository);
+        itemSearchIndex = new ItemSearchIndex(itemRepository, new SimpleMeterRegistry());
+        itemService = new ItemServiceImpl(itemRepository, itemMapper, itemValidation, commentRepository, commentMapper,
+                bookingRepository, itemSearchIndex, new ItemSuggester(itemRepository, bookingRepository),
+                itemCache, new RequestMatcher(itemRepository, mock(ItemRequestRepository.class),
+                mock(RequestMatchRepository.class), mock(PlatformTransactionManager.class)));
         item = Item
                 .builder()
                 .id(1L)
@@ -145,7 +166,7 @@ class ItemServiceTest {
 
     @Test
     void testUpdateNoItem() {
-        when(itemRepository.findById(any()))
+        when(itemRepository.findByIdForUpdate(any()))
                 .thenReturn(Optional.empty());
 
         final NotFoundException exception = assertThrows(
@@ -158,7 +179,7 @@ class ItemServiceTest {
 
     @Test
     void testUpdateWrongOwner() {
-        when(itemRepository.findById(any()))
+        when(itemRepository.findByIdForUpdate(any()))
                 .thenReturn(Optional.ofNullable(item));
         when(userRepository.findById(any()))
                 .thenReturn(Optional.of(user));
@@ -175,7 +196,7 @@ class ItemServiceTest {
     void testUpdate() {
         when(itemRepository.save(any()))
                 .thenReturn(updateItem);
-        when(itemRepository.findById(any()))
+        when(itemRepository.findByIdForUpdate(any()))
                 .thenReturn(Optional.ofNullable(item));
         when(userRepository.findById(any()))
                 .thenReturn(Optional.of(user));
@@ -192,7 +213,7 @@ class ItemServiceTest {
         updateItemDto.setName(null);
         when(itemRepository.save(any()))
                 .thenReturn(updateItem);
-        when(itemRepository.findById(any()))
+        when(itemRepository.findByIdForUpdate(any()))
                 .thenReturn(Optional.ofNullable(item));
         when(userRepository.findById(any()))
                 .thenReturn(Optional.of(user));
@@ -209,7 +230,7 @@ class ItemServiceTest {
         updateItemDto.setDescription(null);
         when(itemRepository.save(any()))
                 .thenReturn(updateItem);
-        when(itemRepository.findById(any()))
+        when(itemRepository.findByIdForUpdate(any()))
                 .thenReturn(Optional.ofNullable(item));
         when(userRepository.findById(any()))
                 .thenReturn(Optional.of(user));
@@ -226,7 +247,7 @@ class ItemServiceTest {
         updateItemDto.setAvailable(null);
         when(itemRepository.save(any()))
                 .thenReturn(updateItem);
-        when(itemRepository.findById(any()))
+        when(itemRepository.findByIdForUpdate(any()))
                 .thenReturn(Optional.ofNullable(item));
         when(userRepository.findById(any()))
                 .thenReturn(Optional.of(user));
@@ -252,14 +273,9 @@ class ItemServiceTest {
 
     @Test
     void testFindById() {
-        bookings.add(new Booking());
         when(itemRepository.findById(any()))
                 .thenReturn(Optional.ofNullable(item));
-        when(bookingRepository.findAllByItemIdAndEndBefore(1L, presentTime))
-                .thenReturn(bookings);
-        when(bookingRepository.findAllByItemIdAndStartAfter(1L, presentTime))
-                .thenReturn(bookings);
-        when(commentRepository.findAllByItemId(any()))
+        when(commentRepository.findAllByItemIdIn(any()))
                 .thenReturn(new ArrayList<>());
         when(userRepository.findById(any()))
                 .thenReturn(Optional.of(user));
@@ -269,6 +285,63 @@ class ItemServiceTest {
         assertEquals(resultItemWithBooking, itemWithBookingDto);
     }
 
+    @Test
+    void testFindAvailability() {
+        when(itemRepository.findById(any()))
+                .thenReturn(Optional.ofNullable(item));
+        when(userRepository.findById(any()))
+                .thenReturn(Optional.of(user));
+        when(bookingRepository.findAllByItemIdAndStatusInAndStartBeforeAndEndAfterOrderByStartAsc(eq(1L),
+                eq(List.of(BookingStatus.WAITING, BookingStatus.APPROVED)), any(), any()))
+                .thenReturn(List.of(
+                        Booking.builder().id(1L).itemId(1L).status(BookingStatus.APPROVED)
+                                .start(presentTime.plusDays(1L)).end(presentTime.plusDays(3L)).build(),
+                        Booking.builder().id(2L).itemId(1L).status(BookingStatus.WAITING)
+                                .start(presentTime.plusDays(2L)).end(presentTime.plusDays(4L)).build(),
+                        Booking.builder().id(4L).itemId(1L).status(BookingStatus.APPROVED)
+                                .start(presentTime.plusDays(7L)).end(presentTime.plusDays(8L)).build()));
+
+        List<FreeSlotDto> freeSlots = itemService.findAvailability(1L, 1L, presentTime.plusHours(1L),
+                presentTime.plusDays(7L).plusHours(1L));
+
+        assertEquals(List.of(
+                FreeSlotDto.builder().start(presentTime.plusHours(1L)).end(presentTime.plusDays(1L)).build(),
+                FreeSlotDto.builder().start(presentTime.plusDays(4L)).end(presentTime.plusDays(7L)).build()),
+                freeSlots);
+    }
+
+    @Test
+    void testFindAvailabilityOfPastRange() {
+        when(itemRepository.findById(any()))
+                .thenReturn(Optional.ofNullable(item));
+        when(userRepository.findById(any()))
+                .thenReturn(Optional.of(user));
+        when(bookingRepository.findAllByItemIdAndStatusInAndStartBeforeAndEndAfterOrderByStartAsc(any(), any(),
+                any(), any()))
+                .thenReturn(List.of(booking));
+
+        List<FreeSlotDto> freeSlots = itemService.findAvailability(1L, 1L, presentTime.minusDays(2L), presentTime);
+
+        assertEquals(List.of(
+                FreeSlotDto.builder().start(presentTime.minusDays(2L)).end(booking.getStart()).build(),
+                FreeSlotDto.builder().start(booking.getEnd()).end(presentTime).build()),
+                freeSlots);
+    }
+
+    @Test
+    void testFindAvailabilityInvalidRange() {
+        when(itemRepository.findById(any()))
+                .thenReturn(Optional.ofNullable(item));
+        when(userRepository.findById(any()))
+                .thenReturn(Optional.of(user));
+
+        final ValidationException exception = assertThrows(
+                ValidationException.class,
+                () -> itemService.findAvailability(1L, 1L, presentTime, presentTime));
+
+        assertEquals(exception.getMessage(), "The start of the range must be before its end");
+    }
+
     @Test
     void testFindAllByOwner() {
         itemPage = new PageImpl<>(Collections.singletonList(item));
@@ -285,16 +358,36 @@ class ItemServiceTest {
 
     @Test
     void testFindByText() {
-        itemPage = new PageImpl<>(Collections.singletonList(item));
-        when(itemRepository.findByText(any(), any(Pageable.class)))
-                .thenReturn(itemPage);
+        itemSearchIndex.put(item);
 
-        List<ItemDto> resultItems = itemService.findByText("name", 0, 1);
+        List<ItemDto> resultItems = itemService.findByText("name", "id", false, 0, 1);
 
         assertEquals(resultItems.size(), 1);
         assertEquals(resultItems.get(0), itemDto);
     }
 
+    @Test
+    void testFindByTextSkipsUnavailableItems() {
+        for (long i = 1; i <= 20; i++) {
+            itemSearchIndex.put(Item.builder().id(i).name("name").description("description")
+                    .available(i % 5 == 0).owner(1L).build());
+        }
+
+        List<ItemDto> resultItems = itemService.findByText("name", "relevance", false, 0, 3);
+
+        assertEquals(3, resultItems.size());
+        assertTrue(resultItems.stream().allMatch(ItemDto::getAvailable));
+    }
+
+    @Test
+    void testFindByTextUnknownOrder() {
+        final ValidationException exception = assertThrows(
+                ValidationException.class,
+                () -> itemService.findByText("name", "price", false, 0, 1));
+
+        assertEquals(exception.getMessage(), "Unknown order: price");
+    }
+
     @Test
     void testAddComment() {
         bookings.add(booking);
@@ -8,7 +8,9 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.requests.dto.ItemRequestDto;
+import ru.practicum.shareit.requests.dto.RequestMatchDto;
 import ru.practicum.shareit.requests.service.ItemRequestService;
 
 import java.time.LocalDateTime;
@@ -20,6 +22,7 @@ import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -92,6 +95,39 @@ class ItemRequestControllerTest {
                 .andExpect(jsonPath("$[0].items", is(itemRequestDto.getItems())));
     }
 
+    @Test
+    void testFindAllAfter() throws Exception {
+        requests.add(itemRequestDto);
+        when(itemRequestService.findAllAfter(any(), any(), any()))
+                .thenReturn(requests);
+
+        mockMvc.perform(get("/requests/all")
+                        .param("after", Cursor.of(nowTime.plusDays(1), 2L).encode())
+                        .param("size", "1")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string(Cursor.HEADER,
+                        Cursor.of(itemRequestDto.getCreated(), itemRequestDto.getId()).encode()))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(itemRequestDto.getId()), Long.class));
+    }
+
+    @Test
+    void testFindInbox() throws Exception {
+        RequestMatchDto match = new RequestMatchDto(1L, "description", nowTime, 2L, "name");
+        when(itemRequestService.findInbox(any(), any(), any()))
+                .thenReturn(List.of(match));
+
+        mockMvc.perform(get("/requests/inbox")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].requestId", is(match.getRequestId()), Long.class))
+                .andExpect(jsonPath("$[0].description", is(match.getDescription())))
+                .andExpect(jsonPath("$[0].itemId", is(match.getItemId()), Long.class))
+                .andExpect(jsonPath("$[0].itemName", is(match.getItemName())));
+    }
+
     @Test
     void testFindById() throws Exception {
         when(itemRequestService.findById(any(), any()))
@@ -0,0 +1,159 @@
+package ru.practicum.shareit.requests.matching;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.requests.model.ItemRequest;
+import ru.practicum.shareit.requests.model.RequestMatch;
+import ru.practicum.shareit.requests.repository.ItemRequestRepository;
+import ru.practicum.shareit.requests.repository.RequestMatchRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RequestMatcherTest {
+
+    private ItemRepository itemRepository;
+    private ItemRequestRepository itemRequestRepository;
+    private RequestMatchRepository requestMatchRepository;
+    private RequestMatcher requestMatcher;
+    private final LocalDateTime presentTime = LocalDateTime.now().withNano(0);
+    private final List<RequestMatch> delivered = new ArrayList<>();
+
+    @BeforeEach
+    void beforeEach() {
+        itemRepository = mock(ItemRepository.class);
+        itemRequestRepository = mock(ItemRequestRepository.class);
+        requestMatchRepository = mock(RequestMatchRepository.class);
+        when(requestMatchRepository.saveAll(any()))
+                .thenAnswer(invocation -> {
+                    invocation.<Iterable<RequestMatch>>getArgument(0).forEach(delivered::add);
+                    return List.of();
+                });
+        requestMatcher = new RequestMatcher(itemRepository, itemRequestRepository, requestMatchRepository,
+                mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void testAddItemDeliversMatchingRequests() {
+        requestMatcher.addRequest(new ItemRequest(1L, "Нужна аккумуляторная дрель", 1L, presentTime));
+        requestMatcher.addRequest(new ItemRequest(2L, "Ищу молоток", 1L, presentTime));
+        requestMatcher.addRequest(new ItemRequest(3L, "Одолжите дрели на выходные", 3L, presentTime));
+
+        requestMatcher.addItem(new Item(1L, "Дрель", "Ударная", true, 2L, null));
+        requestMatcher.addItem(new Item(2L, "Дрель", "Своя", true, 3L, null));
+
+        assertEquals(List.of(3L, 1L), inbox(2L));
+        assertEquals(new RequestMatch(null, 2L, 1L, 1L), delivered.get(0));
+        assertEquals(List.of(1L), inbox(3L));
+        assertEquals(List.of(), inbox(1L));
+    }
+
+    @Test
+    void testAddRequestDeliversToOwnersOfMatchingItems() {
+        requestMatcher.addItem(new Item(1L, "Дрель", "Ударная", true, 2L, null));
+        requestMatcher.addItem(new Item(2L, "Перфоратор", "Сверлит дрелью", true, 2L, null));
+        requestMatcher.addItem(new Item(3L, "Дрель", "Сломана", false, 3L, null));
+        requestMatcher.addItem(new Item(4L, "Дрель", "Своя", true, 1L, null));
+
+        requestMatcher.addRequest(new ItemRequest(1L, "Ищу дрель", 1L, presentTime));
+
+        assertEquals(List.of(new RequestMatch(null, 2L, 1L, 1L)), delivered);
+    }
+
+    @Test
+    void testAnsweredRequestIsClosed() {
+        requestMatcher.addRequest(new ItemRequest(1L, "Нужна дрель", 1L, presentTime));
+
+        requestMatcher.addItem(new Item(1L, "Дрель", "Ударная", true, 2L, 1L));
+        requestMatcher.addItem(new Item(2L, "Дрель", "Ударная", true, 3L, null));
+
+        assertEquals(List.of(), delivered);
+        verify(requestMatchRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void testUpdateItemReindexesWithoutDelivering() {
+        requestMatcher.addItem(new Item(1L, "Дрель", "Ударная", true, 2L, null));
+        requestMatcher.updateItem(new Item(1L, "Молоток", "Стальной", true, 2L, null));
+
+        requestMatcher.addRequest(new ItemRequest(1L, "Нужна дрель", 1L, presentTime));
+        requestMatcher.addRequest(new ItemRequest(2L, "Нужен молоток", 1L, presentTime));
+
+        assertEquals(List.of(2L), inbox(2L));
+    }
+
+    @Test
+    void testDeliveryTrimsInbox() {
+        when(requestMatchRepository.findAllIdByRecipientId(eq(2L), any()))
+                .thenReturn(List.of(7L));
+        requestMatcher.addItem(new Item(1L, "Дрель", "Ударная", true, 2L, null));
+
+        requestMatcher.addRequest(new ItemRequest(1L, "Нужна дрель", 1L, presentTime));
+
+        verify(requestMatchRepository).deleteAllByRecipientIdUpTo(2L, 7L);
+    }
+
+    @Test
+    void testMatchRequiresSharedTerms() {
+        requestMatcher.addItem(new Item(1L, "Дрель ударная Makita", "Сетевая", true, 2L, null));
+        requestMatcher.addItem(new Item(2L, "Дрель аккумуляторная Bosch", "С кейсом", true, 3L, null));
+
+        requestMatcher.addRequest(new ItemRequest(1L, "Нужна аккумуляторная дрель", 1L, presentTime));
+
+        assertEquals(List.of(), inbox(2L));
+        assertEquals(List.of(1L), inbox(3L));
+    }
+
+    @Test
+    void testRequestIsDeliveredToBestMatchingItemsOnly() {
+        for (long i = 1; i <= RequestMatcher.MAX_MATCHES + 5; i++) {
+            requestMatcher.addItem(new Item(i, i <= 5 ? "Дрель ударная" : "Дрель", "Своя", true, i + 1, null));
+        }
+
+        requestMatcher.addRequest(new ItemRequest(1L, "Нужна ударная дрель", 1L, presentTime));
+
+        List<Long> itemIds = delivered.stream().map(RequestMatch::getItemId).collect(Collectors.toList());
+        assertEquals(RequestMatcher.MAX_MATCHES, itemIds.size());
+        assertTrue(itemIds.containsAll(List.of(1L, 2L, 3L, 4L, 5L)));
+    }
+
+    @Test
+    void testRebuildIndexesOpenRequests() {
+        when(itemRepository.findFirst1000ByIdGreaterThanOrderByIdAsc(eq(0L)))
+                .thenReturn(List.of(new Item(1L, "Молоток", "Стальной", true, 2L, 1L)));
+        when(itemRequestRepository.findFirst1000ByIdGreaterThanOrderByIdAsc(eq(0L)))
+                .thenReturn(List.of(new ItemRequest(1L, "Нужен молоток", 1L, presentTime),
+                        new ItemRequest(2L, "Нужна дрель", 1L, presentTime)));
+
+        requestMatcher.rebuild();
+        requestMatcher.addItem(new Item(2L, "Дрель", "Ударная", true, 3L, null));
+        requestMatcher.addItem(new Item(3L, "Молоток", "Деревянный", true, 3L, null));
+        requestMatcher.addRequest(new ItemRequest(3L, "Ищу молоток", 4L, presentTime));
+
+        assertEquals(List.of(3L, 2L), inbox(3L));
+        assertEquals(List.of(3L), inbox(2L));
+    }
+
+    private List<Long> inbox(Long recipientId) {
+        final List<Long> requestIds = delivered.stream()
+                .filter(match -> match.getRecipientId().equals(recipientId))
+                .map(RequestMatch::getRequestId)
+                .collect(Collectors.toList());
+        Collections.reverse(requestIds);
+        return requestIds;
+    }
+}
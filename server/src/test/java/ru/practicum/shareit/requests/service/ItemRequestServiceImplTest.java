@@ -1,11 +1,19 @@
 package ru.practicum.shareit.requests.service;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.requests.dto.ItemRequestDto;
+import ru.practicum.shareit.requests.dto.RequestMatchDto;
 import ru.practicum.shareit.requests.model.ItemRequest;
+import ru.practicum.shareit.requests.model.RequestMatch;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
@@ -13,7 +21,9 @@ import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 import javax.transaction.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -21,7 +31,8 @@ import static org.hamcrest.Matchers.notNullValue;
 
 @Transactional
 @SpringBootTest(
-        properties = "db.name=test",
+        properties = {"db.name=test", "spring.jpa.properties.hibernate.generate_statistics=true",
+                "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"},
         webEnvironment = SpringBootTest.WebEnvironment.NONE)
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
@@ -30,6 +41,7 @@ class ItemRequestServiceImplTest {
     private final EntityManager em;
     private final ItemRequestService itemRequestService;
     private final UserService userService;
+    private final ItemService itemService;
 
     @Test
     void testAdd() {
@@ -92,6 +104,86 @@ class ItemRequestServiceImplTest {
         assertThat(itemRequests.get(1).getRequesterId(), equalTo(itemRequest2.getRequesterId()));
     }
 
+    @Test
+    void testFindAllLoadsItemsInBulk() {
+        Long requesterId = userService.add(User.builder().name("requester").email("email47@email.ru").build()).getId();
+        Long ownerId = userService.add(User.builder().name("owner").email("email48@email.ru").build()).getId();
+        for (int i = 0; i < 12; i++) {
+            Long requestId = itemRequestService.add(ItemRequest.builder().description("description" + i).build(),
+                    requesterId).getId();
+            itemService.add(ItemDto.builder().name("name" + i).description("description").available(true)
+                    .requestId(requestId).build(), ownerId);
+        }
+        em.flush();
+        em.clear();
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        List<ItemRequestDto> smallPage = itemRequestService.findAll(ownerId, 0, 2);
+        long smallPageStatements = statistics.getPrepareStatementCount();
+        em.clear();
+        statistics.clear();
+        List<ItemRequestDto> largePage = itemRequestService.findAll(ownerId, 0, 10);
+        long largePageStatements = statistics.getPrepareStatementCount();
+        em.clear();
+        statistics.clear();
+        List<ItemRequestDto> byRequester = itemRequestService.findAllByRequester(requesterId);
+        long byRequesterStatements = statistics.getPrepareStatementCount();
+
+        assertThat(smallPage.size(), equalTo(2));
+        assertThat(largePage.size(), equalTo(10));
+        assertThat(byRequester.size(), equalTo(12));
+        assertThat(byRequester.stream().allMatch(itemRequest -> itemRequest.getItems().size() == 1), equalTo(true));
+        assertThat(largePageStatements, equalTo(smallPageStatements));
+        assertThat(byRequesterStatements, equalTo(3L));
+    }
+
+    @Test
+    void testFindAllOrdersByCreatedAndPagesByKeyset() {
+        Long requesterId = userService.add(User.builder().name("requester").email("email49@email.ru").build()).getId();
+        Long userId = userService.add(User.builder().name("user").email("email50@email.ru").build()).getId();
+        LocalDateTime created = LocalDateTime.of(2022, 1, 1, 12, 0);
+        ItemRequest oldest = new ItemRequest(null, "oldest", requesterId, created.minusDays(1));
+        ItemRequest first = new ItemRequest(null, "first", requesterId, created);
+        ItemRequest second = new ItemRequest(null, "second", requesterId, created);
+        ItemRequest own = new ItemRequest(null, "own", userId, created.plusDays(1));
+        ItemRequest newest = new ItemRequest(null, "newest", requesterId, created.plusDays(2));
+        List.of(oldest, first, second, own, newest).forEach(em::persist);
+
+        List<ItemRequestDto> firstPage = itemRequestService.findAll(userId, 0, 2);
+        List<ItemRequestDto> secondPage = itemRequestService.findAllAfter(userId,
+                Cursor.of(firstPage.get(1).getCreated(), firstPage.get(1).getId()).encode(), 2);
+
+        assertThat(firstPage.stream().map(ItemRequestDto::getId).collect(Collectors.toList()),
+                equalTo(List.of(newest.getId(), second.getId())));
+        assertThat(secondPage.stream().map(ItemRequestDto::getId).collect(Collectors.toList()),
+                equalTo(List.of(first.getId(), oldest.getId())));
+        assertThat(itemRequestService.findAll(userId, 2, 2), equalTo(secondPage));
+    }
+
+    @Test
+    void testFindInboxReadsStoredMatchesNewestFirst() {
+        Long requesterId = userService.add(User.builder().name("requester").email("email51@email.ru").build()).getId();
+        Long ownerId = userService.add(User.builder().name("owner").email("email52@email.ru").build()).getId();
+        Long itemId = itemService.add(ItemDto.builder().name("Дрель").description("Ударная").available(true).build(),
+                ownerId).getId();
+        Long firstId = itemRequestService.add(ItemRequest.builder().description("Нужна дрель").build(), requesterId)
+                .getId();
+        Long secondId = itemRequestService.add(ItemRequest.builder().description("Ищу дрель").build(), requesterId)
+                .getId();
+        em.persist(new RequestMatch(null, ownerId, firstId, itemId));
+        em.persist(new RequestMatch(null, ownerId, secondId, itemId));
+
+        List<RequestMatchDto> inbox = itemRequestService.findInbox(ownerId, 0, 10);
+
+        assertThat(inbox.stream().map(RequestMatchDto::getRequestId).collect(Collectors.toList()),
+                equalTo(List.of(secondId, firstId)));
+        assertThat(inbox.get(1).getDescription(), equalTo("Нужна дрель"));
+        assertThat(inbox.get(1).getItemName(), equalTo("Дрель"));
+        assertThat(itemRequestService.findInbox(ownerId, 1, 1).size(), equalTo(1));
+        assertThat(itemRequestService.findInbox(requesterId, 0, 10).size(), equalTo(0));
+    }
+
     @Test
     void testFindById() {
         ItemRequest itemRequest1 = ItemRequest.builder().description("description1").build();
@@ -1,24 +1,27 @@
 package ru.practicum.shareit.requests.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.requests.dto.ItemRequestDto;
 import ru.practicum.shareit.requests.dto.ItemRequestMapper;
+import ru.practicum.shareit.requests.matching.RequestMatcher;
 import ru.practicum.shareit.requests.model.ItemRequest;
 import ru.practicum.shareit.requests.repository.ItemRequestRepository;
+import ru.practicum.shareit.requests.repository.RequestMatchRepository;
 import ru.practicum.shareit.requests.validation.ItemRequestValidation;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserExistenceCache;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -39,7 +42,6 @@ class ItemRequestServiceTest {
     private ItemRequestDto itemRequestDto;
     private ItemRequestDto resultRequest;
     private List<ItemRequestDto> resultList;
-    private PageImpl<ItemRequest> itemRequestPage;
     private final LocalDateTime presentTime = LocalDateTime.now().withNano(0);
     private final User user = new User(1L, "name", "email@email.ru");
     private final List<Item> items = new ArrayList<>();
@@ -51,16 +53,19 @@ class ItemRequestServiceTest {
         itemRepository = mock(ItemRepository.class);
         userRepository = mock(UserRepository.class);
         ItemRequestMapper itemRequestMapper = new ItemRequestMapper(itemRepository);
-        ItemRequestValidation itemRequestValidation = new ItemRequestValidation(userRepository, itemRequestRepository);
-        itemRequestService = new ItemRequestServiceImpl(itemRequestRepository, itemRequestMapper, itemRequestValidation);
-        itemRequest = new ItemRequest(1L, "description", 1L);
+        ItemRequestValidation itemRequestValidation = new ItemRequestValidation(
+                new UserExistenceCache(userRepository, new SimpleMeterRegistry()), itemRequestRepository);
+        itemRequestService = new ItemRequestServiceImpl(itemRequestRepository, itemRequestMapper, itemRequestValidation,
+                new RequestMatcher(itemRepository, itemRequestRepository, mock(RequestMatchRepository.class),
+                        mock(PlatformTransactionManager.class)));
+        itemRequest = new ItemRequest(1L, "description", 1L, presentTime);
         itemRequestDto = new ItemRequestDto(1L, "description", presentTime, items);
     }
 
     @Test
     void testAdd() {
         when(itemRequestRepository.save(any()))
-                .thenReturn(itemRequest);
+                .thenReturn(new ItemRequest(1L, "description", 1L, presentTime));
         when(userRepository.findById(any()))
                 .thenReturn(Optional.of(user));
 
@@ -88,7 +93,7 @@ class ItemRequestServiceTest {
     @Test
     void testFindAllByRequester() {
         itemRequests.add(itemRequest);
-        when(itemRequestRepository.findAllByRequesterId(any()))
+        when(itemRequestRepository.findAllByRequesterIdOrderByCreatedDescIdDesc(any()))
                 .thenReturn(itemRequests);
         when(userRepository.findById(any()))
                 .thenReturn(Optional.of(user));
@@ -103,7 +108,7 @@ class ItemRequestServiceTest {
     @Test
     void testFindAllByRequesterWrongUser() {
         itemRequests.add(itemRequest);
-        when(itemRequestRepository.findAllByRequesterId(any()))
+        when(itemRequestRepository.findAllByRequesterIdOrderByCreatedDescIdDesc(any()))
                 .thenReturn(itemRequests);
         when(userRepository.findById(any()))
                 .thenReturn(Optional.empty());
@@ -118,9 +123,9 @@ class ItemRequestServiceTest {
 
     @Test
     void testFindAll() {
-        itemRequestPage = new PageImpl<>(Collections.singletonList(itemRequest));
-        when(itemRequestRepository.findAll(any(Pageable.class)))
-                .thenReturn(itemRequestPage);
+        itemRequests.add(itemRequest);
+        when(itemRequestRepository.findAllByRequesterIdNotOrderByCreatedDescIdDesc(eq(2L), any(Pageable.class)))
+                .thenReturn(itemRequests);
 
         resultList = itemRequestService.findAll(2L, 0, 1);
 
@@ -131,9 +136,8 @@ class ItemRequestServiceTest {
 
     @Test
     void testFindAllOwner() {
-        itemRequestPage = new PageImpl<>(Collections.singletonList(itemRequest));
-        when(itemRequestRepository.findAll(any(Pageable.class)))
-                .thenReturn(itemRequestPage);
+        when(itemRequestRepository.findAllByRequesterIdNotOrderByCreatedDescIdDesc(eq(1L), any(Pageable.class)))
+                .thenReturn(List.of());
 
         resultList = itemRequestService.findAll(1L, 0, 1);
 
@@ -8,19 +8,23 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(UserController.class)
 @AutoConfigureMockMvc
@@ -70,7 +74,7 @@ class UserControllerTest {
     @Test
     void testFindAll() throws Exception {
         users.add(user);
-        when(userService.findAll())
+        when(userService.findAll(any(), any()))
                 .thenReturn(users);
 
         mockMvc.perform(get("/users"))
@@ -81,6 +85,43 @@ class UserControllerTest {
                 .andExpect(jsonPath("$[0].email", is(user.getEmail())));
     }
 
+    @Test
+    void testFindAllAfter() throws Exception {
+        users.add(user);
+        when(userService.findAllAfter(any(), any()))
+                .thenReturn(users);
+
+        mockMvc.perform(get("/users")
+                        .param("after", Cursor.of(0L).encode())
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(Cursor.HEADER, Cursor.of(user.getId()).encode()))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(user.getId()), Long.class));
+    }
+
+    @Test
+    void testStreamAll() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<UserDto> consumer = invocation.getArgument(0);
+            consumer.accept(user);
+            consumer.accept(updatedUser);
+            return null;
+        }).when(userService).streamAll(any());
+
+        MvcResult result = mockMvc.perform(get("/users")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        assertEquals(-1L, result.getRequest().getAsyncContext().getTimeout());
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(mapper.writeValueAsString(user) + "\n"
+                        + mapper.writeValueAsString(updatedUser) + "\n"));
+    }
+
     @Test
     void testFindById() throws Exception {
         when(userService.findById(any()))
@@ -0,0 +1,131 @@
+package ru.practicum.shareit.user.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class UserExistenceCacheTest {
+
+    private UserRepository userRepository;
+    private MeterRegistry meterRegistry;
+    private UserExistenceCache userExistenceCache;
+    private final User user = new User(1L, "name", "email@email.ru");
+
+    @BeforeEach
+    void beforeEach() {
+        userRepository = mock(UserRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        userExistenceCache = new UserExistenceCache(userRepository, meterRegistry);
+        when(userRepository.findAllIdAfter(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L));
+        when(userRepository.findById(any()))
+                .thenReturn(Optional.empty());
+        userExistenceCache.rebuild();
+    }
+
+    @Test
+    void testExistsSkipsLookupForKnownUsers() {
+        assertTrue(userExistenceCache.exists(1L));
+        assertTrue(userExistenceCache.exists(2L));
+        assertFalse(userExistenceCache.exists(3L));
+
+        verify(userRepository, times(1)).findById(any());
+        assertEquals(2.0, checks("hit"));
+        assertEquals(1.0, checks("missing"));
+        assertEquals(2.0, meterRegistry.get("user.existence.size").gauge().value());
+    }
+
+    @Test
+    void testExistsConfirmsAndAddsUnknownUsers() {
+        when(userRepository.findById(3L))
+                .thenReturn(Optional.of(user));
+
+        assertTrue(userExistenceCache.exists(3L));
+        assertTrue(userExistenceCache.exists(3L));
+
+        verify(userRepository, times(1)).findById(3L);
+        assertEquals(1.0, checks("confirmed"));
+        assertEquals(1.0, checks("hit"));
+    }
+
+    @Test
+    void testAddAndRemove() {
+        userExistenceCache.add(3L);
+        userExistenceCache.remove(1L);
+
+        assertTrue(userExistenceCache.exists(3L));
+        assertFalse(userExistenceCache.exists(1L));
+        verify(userRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void testExistsConfirmedDropsUsersDeletedElsewhere() {
+        when(userRepository.findById(2L))
+                .thenReturn(Optional.of(user));
+
+        assertFalse(userExistenceCache.existsConfirmed(1L));
+        assertTrue(userExistenceCache.existsConfirmed(2L));
+        assertFalse(userExistenceCache.exists(1L));
+
+        verify(userRepository, times(2)).findById(1L);
+        assertEquals(1.0, meterRegistry.get("user.existence.size").gauge().value());
+    }
+
+    @Test
+    void testRefreshDropsUsersDeletedElsewhere() {
+        when(userRepository.findAllIdAfter(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(2L));
+
+        userExistenceCache.refresh();
+
+        assertFalse(userExistenceCache.exists(1L));
+        assertTrue(userExistenceCache.exists(2L));
+    }
+
+    @Test
+    void testRebuildDropsUsersDeletedMeanwhile() {
+        when(userRepository.findAllIdAfter(eq(0L), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    userExistenceCache.remove(2L);
+                    return List.of(1L, 2L);
+                });
+
+        userExistenceCache.rebuild();
+
+        assertTrue(userExistenceCache.exists(1L));
+        assertFalse(userExistenceCache.exists(2L));
+    }
+
+    @Test
+    void testFallsBackToLookupsWhenReleased() {
+        when(userRepository.findById(1L))
+                .thenReturn(Optional.of(user));
+        userExistenceCache.release();
+
+        assertTrue(userExistenceCache.exists(1L));
+        assertTrue(userExistenceCache.exists(1L));
+        assertFalse(userExistenceCache.exists(2L));
+        assertEquals(1.0, meterRegistry.get("user.existence.degraded").gauge().value());
+        verify(userRepository, times(2)).findById(1L);
+
+        userExistenceCache.rebuildIfReleased();
+
+        assertTrue(userExistenceCache.exists(2L));
+        assertEquals(0.0, meterRegistry.get("user.existence.degraded").gauge().value());
+    }
+
+    private double checks(String result) {
+        return meterRegistry.get("user.existence.checks").tag("result", result).counter().count();
+    }
+}
@@ -5,13 +5,17 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 import javax.transaction.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -77,6 +81,25 @@ class UserServiceImplTest {
         assertThat(users.get(0).getEmail(), equalTo(user.getEmail()));
     }
 
+    @Test
+    void testFindAllPagesAndStreamsById() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(userService.add(User.builder().name("name" + i).email("email6" + i + "@email.ru").build()).getId());
+        }
+
+        List<UserDto> firstPage = userService.findAll(0, 2);
+        List<UserDto> secondPage = userService.findAllAfter(Cursor.of(firstPage.get(1).getId()).encode(), 2);
+        List<UserDto> streamed = new ArrayList<>();
+        userService.streamAll(streamed::add);
+
+        assertThat(firstPage.stream().map(UserDto::getId).collect(Collectors.toList()), equalTo(ids.subList(0, 2)));
+        assertThat(secondPage, equalTo(userService.findAll(2, 2)));
+        assertThat(secondPage.stream().map(UserDto::getId).collect(Collectors.toList()), equalTo(ids.subList(2, 4)));
+        assertThat(streamed.stream().map(UserDto::getId).collect(Collectors.toList()), equalTo(ids));
+        assertThat(streamed.get(0), equalTo(firstPage.get(0)));
+    }
+
     @Test
     void testFindById() {
         User user = User.builder().name("name").email("email54@email.ru").build();
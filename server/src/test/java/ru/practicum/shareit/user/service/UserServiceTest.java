@@ -1,13 +1,17 @@
 package ru.practicum.shareit.user.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserExistenceCache;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.validation.UserValidation;
 
@@ -34,7 +38,8 @@ class UserServiceTest {
         userRepository = mock(UserRepository.class);
         UserValidation userValidation = new UserValidation(userRepository);
         userMapper = new UserMapper();
-        userService = new UserServiceImpl(userRepository, userMapper, userValidation);
+        userService = new UserServiceImpl(userRepository, userMapper, userValidation,
+                new UserExistenceCache(userRepository, new SimpleMeterRegistry()));
         user = new User(1L, "name", "email@email.ru");
         userDto = new UserDto(1L, "name", "email@email.ru");
         resultUser = new UserDto();
@@ -123,10 +128,10 @@ class UserServiceTest {
 
     @Test
     void testFindAllEmpty() {
-        when(userRepository.findAll())
+        when(userRepository.findAllByOrderByIdAsc(any(Pageable.class)))
                 .thenReturn(new ArrayList<>());
 
-        List<UserDto> result = userService.findAll();
+        List<UserDto> result = userService.findAll(0, 10);
         assertEquals(result.size(), 0);
     }
 
@@ -134,16 +139,38 @@ class UserServiceTest {
     void testFindAll() {
         List<User> users = new ArrayList<>();
         users.add(user);
-        when(userRepository.findAll())
+        when(userRepository.findAllByOrderByIdAsc(any(Pageable.class)))
                 .thenReturn(users);
 
-        List<UserDto> result = userService.findAll();
+        List<UserDto> result = userService.findAll(0, 10);
 
         assertNotNull(result);
         assertEquals(result.size(), 1);
         assertEquals(result.get(0), userDto);
     }
 
+    @Test
+    void testFindAllAfter() {
+        List<User> users = new ArrayList<>();
+        users.add(user);
+        when(userRepository.findAllByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class)))
+                .thenReturn(users);
+
+        List<UserDto> result = userService.findAllAfter(Cursor.of(0L).encode(), 10);
+
+        assertEquals(result, List.of(userDto));
+    }
+
+    @Test
+    void testFindAllAfterInvalidCursor() {
+        final ValidationException exception = assertThrows(
+                ValidationException.class,
+                () -> userService.findAllAfter("not a cursor", 10)
+        );
+
+        assertEquals(exception.getMessage(), "Invalid cursor: not a cursor");
+    }
+
     @Test
     void testFindById() {
         when(userRepository.findById(any()))